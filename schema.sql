@@ -18,6 +18,8 @@
         updated_at timestamp(6) not null,
         body varchar(255) not null,
         description varchar(255) not null,
+        fanned_out boolean not null,
+        favorites_count integer default 0 not null,
         slug varchar(255) unique,
         title varchar(255) not null,
         primary key (id)
@@ -45,12 +47,37 @@
         primary key (followed_id, follower_id)
     );
 
+    create table user_follow_changes (
+        following boolean not null,
+        changed_at timestamp(6) not null,
+        followed_id bigint not null,
+        follower_id bigint not null,
+        id bigint generated by default as identity,
+        primary key (id)
+    );
+
+    create table user_feed (
+        article_id bigint not null,
+        author_id bigint not null,
+        created_at timestamp(6) not null,
+        user_id bigint not null,
+        primary key (article_id, user_id)
+    );
+
+    create table user_feed_horizons (
+        article_id bigint not null,
+        created_at timestamp(6) not null,
+        user_id bigint not null,
+        primary key (user_id)
+    );
+
     create table users (
         id bigint generated by default as identity,
         bio varchar(255),
         email varchar(255) not null unique,
         image varchar(255),
         password varchar(255) not null,
+        token_version bigint default 0 not null,
         username varchar(255) not null unique,
         primary key (id)
     );
@@ -58,6 +85,33 @@
     create index idx_article_slug 
        on articles (slug);
 
+    create index idx_article_created_at_id 
+       on articles (created_at desc, id desc);
+
+    create index idx_article_author_created_at_id 
+       on articles (author_id, created_at desc, id desc);
+
+    create index idx_article_fanned_out_created_at 
+       on articles (fanned_out, created_at);
+
+    create index idx_article_favorites_user_article 
+       on article_favorites (user_id, article_id);
+
+    create index idx_article_tags_tag_article 
+       on article_tags (tag_id, article_id);
+
+    create index idx_user_feed_user_created_at_article 
+       on user_feed (user_id, created_at desc, article_id desc);
+
+    create index idx_user_feed_article 
+       on user_feed (article_id);
+
+    create index idx_user_follows_follower_followed 
+       on user_follows (follower_id, followed_id);
+
+    create index idx_user_follow_changes_changed_at 
+       on user_follow_changes (changed_at);
+
     create index idx_user_email 
        on users (email);
 
@@ -109,3 +163,9 @@
        add constraint fk_user_follower 
        foreign key (follower_id) 
        references users;
+
+    alter table if exists user_feed 
+       add constraint fk_user_feed_article 
+       foreign key (article_id) 
+       references articles 
+       on delete cascade;
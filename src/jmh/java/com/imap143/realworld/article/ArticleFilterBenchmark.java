@@ -0,0 +1,124 @@
+package com.imap143.realworld.article;
+
+import com.imap143.realworld.RealworldApplication;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleView;
+import com.imap143.realworld.article.service.ArticleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// First page of GET /articles at one million articles for each kind of criteria combination,
+// through the real service and H2 schema (including the recommended indexes).
+// Tag i is carried by every (i + 1)th article, so "tag0" matches everything and "tag99" one
+// article in a hundred. Each author and each favoriting user has about a hundred articles.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleFilterBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int TAGS = 100;
+    private static final int BATCH = 10_000;
+
+    @Param({"1000000"})
+    public int articles;
+
+    @Param({"tag", "rareTag", "tagAndAuthor", "allOfTwoTags", "anyOfTwoTags", "favoritedAndTag"})
+    public String criteria;
+
+    private ConfigurableApplicationContext context;
+    private ArticleService articleService;
+    private ArticleFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(RealworldApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:filter-benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+        articleService = context.getBean(ArticleService.class);
+
+        filter = switch (criteria) {
+            case "tag" -> ArticleFilter.tag("tag0");
+            case "rareTag" -> ArticleFilter.tag("tag99");
+            case "tagAndAuthor" -> ArticleFilter.of(List.of("tag1"), ArticleFilter.TagMatch.ALL, "user43", null);
+            case "allOfTwoTags" -> ArticleFilter.of(List.of("tag1", "tag2"), ArticleFilter.TagMatch.ALL, null, null);
+            case "anyOfTwoTags" -> ArticleFilter.of(List.of("tag50", "tag99"), ArticleFilter.TagMatch.ANY, null, null);
+            case "favoritedAndTag" -> ArticleFilter.of(List.of("tag0"), ArticleFilter.TagMatch.ALL, null, "user7");
+            default -> throw new IllegalArgumentException(criteria);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ArticleSummary> offsetFirstPage() {
+        return articleService.findSummaries(filter, PageRequest.of(0, 20), ArticleView.SUMMARY);
+    }
+
+    @Benchmark
+    public List<ArticleSummary> cursorFirstPage() {
+        return articleService.scrollSummaries(filter, ArticleCursor.FIRST, 21, ArticleView.SUMMARY);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            rows.add(new Object[]{id, "user" + id + "@bench.com", "user" + id, "{noop}password"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, email, username, password, token_version) VALUES (?, ?, ?, ?, 0)", rows);
+
+        rows.clear();
+        for (long id = 0; id < TAGS; id++) {
+            rows.add(new Object[]{id + 1, "tag" + id});
+        }
+        jdbc.batchUpdate("INSERT INTO tags (id, tag_name) VALUES (?, ?)", rows);
+
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Object[]> articleRows = new ArrayList<>();
+        List<Object[]> tagRows = new ArrayList<>();
+        List<Object[]> favoriteRows = new ArrayList<>();
+        for (long id = 1; id <= articles; id++) {
+            Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(id * 60));
+            articleRows.add(new Object[]{id, id % USERS + 1, createdAt, createdAt, "Article " + id, "description", "body", "article-" + id});
+            for (int tag = 0; tag < TAGS; tag++) {
+                if (id % (tag + 1) == 0) {
+                    tagRows.add(new Object[]{id, tag + 1});
+                }
+            }
+            favoriteRows.add(new Object[]{id, (id * 31) % USERS + 1});
+
+            if (articleRows.size() == BATCH || id == articles) {
+                jdbc.batchUpdate("INSERT INTO articles (id, author_id, created_at, updated_at, title, description, body, slug, favorites_count, fanned_out) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 1, TRUE)", articleRows);
+                jdbc.batchUpdate("INSERT INTO article_tags (article_id, tag_id) VALUES (?, ?)", tagRows);
+                jdbc.batchUpdate("INSERT INTO article_favorites (article_id, user_id) VALUES (?, ?)", favoriteRows);
+                articleRows.clear();
+                tagRows.clear();
+                favoriteRows.clear();
+            }
+        }
+    }
+}
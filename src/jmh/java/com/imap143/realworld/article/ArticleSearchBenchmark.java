@@ -0,0 +1,58 @@
+package com.imap143.realworld.article;
+
+import com.imap143.realworld.article.service.ArticleSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// GET /articles/search ranking at one million articles, on the index alone: loading the page's
+// twenty articles afterwards is one keyed query whatever the corpus size.
+// Body words are drawn from a skewed vocabulary of 50,000 terms, so "w0" sits in about one
+// article in a hundred and "w40000" in a handful; every title carries "article".
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ArticleSearchBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int BODY_WORDS = 30;
+
+    @Param({"1000000"})
+    public int articles;
+
+    @Param({"w0", "w40000", "w1500 w3000", "w0 w1 w2", "article"})
+    public String query;
+
+    private ArticleSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new ArticleSearchIndex();
+        Random random = new Random(42);
+        for (long id = 1; id <= articles; id++) {
+            StringBuilder body = new StringBuilder();
+            for (int word = 0; word < BODY_WORDS; word++) {
+                body.append('w').append(skewed(random)).append(' ');
+            }
+            index.put(ArticleSearchIndex.analyze(id, "article " + id, "w" + random.nextInt(VOCABULARY), body.toString()));
+        }
+    }
+
+    @Benchmark
+    public ArticleSearchIndex.Hits firstPage() {
+        return index.search(query, 20);
+    }
+
+    @Benchmark
+    public ArticleSearchIndex.Hits deepestPage() {
+        return index.search(query, 1_000);
+    }
+
+    private static int skewed(Random random) {
+        return (int) Math.min(VOCABULARY - 1, Math.abs(random.nextGaussian()) * 2_000);
+    }
+}
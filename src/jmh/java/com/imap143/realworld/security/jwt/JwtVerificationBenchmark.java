@@ -0,0 +1,68 @@
+package com.imap143.realworld.security.jwt;
+
+import com.imap143.realworld.user.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Compares the old filter path (validateToken + getUserId, each with a freshly built parser)
+// against the single parse through the shared parser. Run with ./gradlew jmh; the gc profiler
+// reports the allocation rate per operation next to the timings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "secretasdkfsfksfsdkfndksnfdaksfndsakfnskfndskfnsdkf";
+
+    private JwtProvider jwtProvider;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET);
+        jwtProperties.setTokenValidityInSeconds(3600);
+
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtProperties);
+        jwtProvider = new JwtProvider(jwtProperties, new TokenVersionRegistry(null), verifiedTokenCache,
+                new JwtKeyRing(jwtProperties, verifiedTokenCache));
+        jwtProvider.init();
+
+        key = Keys.hmacShaKeyFor(Base64.getEncoder().encodeToString(SECRET.getBytes()).getBytes());
+        token = jwtProvider.createToken(User.of("bench@example.com", "bench", null));
+    }
+
+    @Benchmark
+    public String twoParsesWithFreshParsers() {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String singleParseWithSharedParser() {
+        return jwtProvider.parseClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public Authentication cachedAuthentication() {
+        return jwtProvider.authenticate(token).orElseThrow();
+    }
+}
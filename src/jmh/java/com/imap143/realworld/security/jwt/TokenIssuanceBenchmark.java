@@ -0,0 +1,49 @@
+package com.imap143.realworld.security.jwt;
+
+import com.imap143.realworld.user.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+// Token part of GET /user: signing a fresh token per call versus handing back the caller's
+// still-fresh token. The user lookup is identical on both paths and left out.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIssuanceBenchmark {
+
+    private JwtProvider jwtProvider;
+    private User user;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey("secretasdkfsfksfsdkfndksnfdaksfndsakfnskfndskfnsdkf");
+        jwtProperties.setTokenValidityInSeconds(86400);
+        jwtProperties.setReuseTokens(true);
+
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(null);
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(jwtProperties);
+        jwtProvider = new JwtProvider(jwtProperties, tokenVersionRegistry, verifiedTokenCache,
+                new JwtKeyRing(jwtProperties, verifiedTokenCache));
+        jwtProvider.init();
+
+        user = User.of("bench@example.com", "bench", null);
+        authentication = jwtProvider.authenticate(jwtProvider.createToken(user)).orElseThrow();
+    }
+
+    @Benchmark
+    public String createTokenPerCall() {
+        return jwtProvider.createToken(user);
+    }
+
+    @Benchmark
+    public String reuseCallerToken() {
+        return jwtProvider.reuseOrCreateToken(user, authentication);
+    }
+}
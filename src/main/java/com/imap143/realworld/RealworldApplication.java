@@ -2,8 +2,13 @@ package com.imap143.realworld;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Requests authenticate with JWTs only, so no UserDetailsService: without the exclusion Boot
+// would set up an in-memory user with a generated password.
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
+@EnableScheduling
 public class RealworldApplication {
 
 	public static void main(String[] args) {
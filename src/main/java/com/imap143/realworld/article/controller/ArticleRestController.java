@@ -3,22 +3,31 @@ package com.imap143.realworld.article.controller;
 import com.imap143.realworld.article.dto.ArticlePostRequestDTO;
 import com.imap143.realworld.article.dto.ArticleUpdateRequestDTO;
 import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleView;
+import com.imap143.realworld.article.repository.OffsetPageRequest;
 import com.imap143.realworld.article.service.ArticleService;
 import com.imap143.realworld.exception.RealWorldException;
 
 import com.imap143.realworld.security.CustomUserDetails;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.PageRequest;
 
 import com.imap143.realworld.article.dto.MultiArticleResponseDTO;
 import com.imap143.realworld.article.dto.SingleArticleResponseDTO;
 
+import java.util.List;
+
 @RestController
 public class ArticleRestController {
     private final ArticleService articleService;
@@ -27,39 +36,95 @@ public class ArticleRestController {
         this.articleService = articleService;
     }
 
+    static final int MAX_LIMIT = 100;
+
+    // tag (repeatable), author and favorited all apply together; tagMatch=any relaxes several tags
+    // to at least one of them. Passing cursor (empty for the first page) switches to keyset paging,
+    // newest first, and the response carries nextCursor. Without it the original offset paging is
+    // kept for compatibility.
+    // view=summary leaves out the article body. A token is optional and only personalizes the
+    // favorited and following flags. Anonymous listings carry a weak ETag, and a matching
+    // If-None-Match gets 304 before any query runs.
     @GetMapping(value = "/articles")
     public MultiArticleResponseDTO getArticles(
-            @RequestParam(required = false) String tag,
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            WebRequest webRequest,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) String tagMatch,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String favorited,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String view,
             @RequestParam(defaultValue = "20") int limit,
             @RequestParam(defaultValue = "0") int offset) {
 
-        Pageable pageable = PageRequest.of(offset/limit, limit);
-
-        if (tag != null) {
-            return MultiArticleResponseDTO.of(articleService.findByTag(tag, pageable));
-        }
-        if (author != null) {
-            return MultiArticleResponseDTO.of(articleService.findByAuthor(author, pageable));
+        validateLimit(limit, cursor != null);
+        ArticleFilter filter = ArticleFilter.of(tag, ArticleFilter.TagMatch.from(tagMatch), author, favorited);
+        ArticleView articleView = ArticleView.from(view);
+        Long userId = userDetails != null ? userDetails.getId() : null;
+        if (userId == null) {
+            if (webRequest.checkNotModified(articleService.listEtag(filter))) {
+                return null;
+            }
         }
-        if (favorited != null) {
-            return MultiArticleResponseDTO.of(articleService.findByFavorited(favorited, pageable));
+        if (cursor != null) {
+            List<ArticleSummary> fetched = articleService.scrollSummaries(filter, ArticleCursor.decode(cursor), limit + 1, articleView);
+            return MultiArticleResponseDTO.ofSummaryScroll(fetched, limit, articleService.countArticles(filter),
+                    articleService.viewerOf(userId, fetched));
         }
 
-        return MultiArticleResponseDTO.of(articleService.findAll(pageable));
+        Page<ArticleSummary> page = articleService.findSummaries(filter, offsetPage(offset, limit), articleView);
+        return MultiArticleResponseDTO.ofSummaries(page, articleService.viewerOf(userId, page.getContent()));
+    }
+
+    // Full-text search over title, description and body, best match first. Terms are matched
+    // whole and case-insensitively, and an article matching any of them is a hit. Offset paging
+    // reaches articles.search.max-results deep.
+    @GetMapping(value = "/articles/search")
+    public MultiArticleResponseDTO searchArticles(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        validateLimit(limit, true);
+        Page<Article> page = articleService.search(q, offsetPage(offset, limit));
+        Long userId = userDetails != null ? userDetails.getId() : null;
+        return MultiArticleResponseDTO.of(page, articleService.viewerOfArticles(userId, page.getContent()));
     }
 
     @GetMapping(value = "/feed")
     @PreAuthorize("isAuthenticated()")
     public MultiArticleResponseDTO getFeed(
             @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int limit,
             @RequestParam(defaultValue = "0") int offset) {
-        Pageable pageable = PageRequest.of(offset/limit, limit);
-        return MultiArticleResponseDTO.of(
-                articleService.getFeed(userDetails.getId(), pageable)
-        );
+        validateLimit(limit, cursor != null);
+        if (cursor != null) {
+            List<Article> fetched = articleService.scrollFeed(userDetails.getId(), ArticleCursor.decode(cursor), limit + 1);
+            return MultiArticleResponseDTO.ofScroll(fetched, limit, articleService.countFeed(userDetails.getId()),
+                    articleService.feedViewerOf(userDetails.getId(), fetched));
+        }
+        Page<Article> page = articleService.getFeed(userDetails.getId(), offsetPage(offset, limit));
+        return MultiArticleResponseDTO.of(page, articleService.feedViewerOf(userDetails.getId(), page.getContent()));
+    }
+
+    // Offset listings take any positive limit, as they did before cursors existed. Cursor pages and
+    // search results are capped at MAX_LIMIT.
+    private static void validateLimit(int limit, boolean capped) {
+        if (limit < 1) {
+            throw new RealWorldException("limit must be positive");
+        }
+        if (capped && limit > MAX_LIMIT) {
+            throw new RealWorldException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    private static Pageable offsetPage(int offset, int limit) {
+        if (offset < 0) {
+            throw new RealWorldException("offset must not be negative");
+        }
+        return new OffsetPageRequest(offset, limit);
     }
 
     @PostMapping(value = "/articles")
@@ -68,10 +133,15 @@ public class ArticleRestController {
         return new SingleArticleResponseDTO(newArticle, newArticle.getAuthor().getProfile());
     }
 
+    // Writes the cached bytes as they are. Spring answers a matching If-None-Match with 304 from
+    // the ETag, so a revalidation hit runs neither a query nor Jackson.
     @GetMapping(value = "/articles/{slug}")
-    public ResponseEntity<SingleArticleResponseDTO> getArticle(@PathVariable String slug) {
-        return articleService.findBySlug(slug)
-                .map(article -> ResponseEntity.ok(new SingleArticleResponseDTO(article, article.getAuthor().getProfile())))
+    public ResponseEntity<byte[]> getArticle(@PathVariable String slug) {
+        return articleService.findView(slug)
+                .map(view -> ResponseEntity.ok()
+                        .eTag(view.getEtag())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(view.getJson()))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -99,7 +169,7 @@ public class ArticleRestController {
             @PathVariable String slug,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         Article article = articleService.addFavorite(slug, userDetails.getId());
-        return new SingleArticleResponseDTO(article, article.getAuthor().getProfile(), userDetails.getId());
+        return new SingleArticleResponseDTO(article, article.getAuthor().getProfile(), true);
     }
 
     @DeleteMapping(value = "/articles/{slug}/favorite")
@@ -107,7 +177,7 @@ public class ArticleRestController {
             @PathVariable String slug,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         Article article = articleService.unFavorite(slug, userDetails.getId());
-        return new SingleArticleResponseDTO(article, article.getAuthor().getProfile(), userDetails.getId());
+        return new SingleArticleResponseDTO(article, article.getAuthor().getProfile(), false);
     }
 
     @ExceptionHandler(RealWorldException.class)
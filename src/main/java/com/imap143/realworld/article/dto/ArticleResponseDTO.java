@@ -1,10 +1,12 @@
 package com.imap143.realworld.article.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleViewer;
 import com.imap143.realworld.tag.model.Tag;
 import com.imap143.realworld.user.model.Profile;
-import com.imap143.realworld.user.model.User;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -16,6 +18,8 @@ public class ArticleResponseDTO {
     private final String slug;
     private final String title;
     private final String description;
+    // Left out of summary listings.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private final String body;
     @JsonProperty("tags")
     private final Set<String> tags;
@@ -26,7 +30,7 @@ public class ArticleResponseDTO {
     private final int favoritesCount;
     private final AuthorDTO author;
 
-    public ArticleResponseDTO(Article article, Profile authorProfile, User currentUser) {
+    public ArticleResponseDTO(Article article, Profile authorProfile, boolean favorited, boolean following) {
         this.slug = article.getSlug();
         this.title = article.getContent().getTitle();
         this.description = article.getContent().getDescription();
@@ -36,15 +40,27 @@ public class ArticleResponseDTO {
                 .collect(Collectors.toSet());
         this.createdAt = article.getCreatedAt();
         this.updatedAt = article.getUpdatedAt();
-        this.favorited = currentUser != null && 
-                article.getFavoritedBy().stream()
-                        .anyMatch(user -> user.getId() == currentUser.getId());
+        this.favorited = favorited;
         this.favoritesCount = article.getFavoritesCount();
-        this.author = new AuthorDTO(authorProfile, currentUser, article.getAuthor());
+        this.author = new AuthorDTO(authorProfile, following);
     }
 
     public ArticleResponseDTO(Article article, Profile authorProfile) {
-        this(article, authorProfile, null);
+        this(article, authorProfile, false, false);
+    }
+
+    public ArticleResponseDTO(ArticleSummary summary, ArticleViewer viewer) {
+        this.slug = summary.slug();
+        this.title = summary.title();
+        this.description = summary.description();
+        this.body = summary.body();
+        this.tags = summary.tags();
+        this.createdAt = summary.createdAt();
+        this.updatedAt = summary.updatedAt();
+        this.favorited = viewer.hasFavorited(summary.id());
+        this.favoritesCount = summary.favoritesCount();
+        this.author = new AuthorDTO(summary.authorUsername(), summary.authorBio(), summary.authorImage(),
+                viewer.follows(summary.authorId()));
     }
 
     @Getter
@@ -54,16 +70,19 @@ public class ArticleResponseDTO {
         private final String image;
         private final boolean following;
 
-        AuthorDTO(Profile profile, User currentUser, User author) {
-            this.username = profile.getUsername();
-            this.bio = profile.getBio();
-            this.image = profile.getImage();
-            this.following = currentUser != null && 
-                           author.getFollowers().contains(currentUser);
+        AuthorDTO(String username, String bio, String image, boolean following) {
+            this.username = username;
+            this.bio = bio;
+            this.image = image;
+            this.following = following;
+        }
+
+        AuthorDTO(Profile profile, boolean following) {
+            this(profile.getUsername(), profile.getBio(), profile.getImage(), following);
         }
 
         AuthorDTO(Profile profile) {
-            this(profile, null, null);
+            this(profile, false);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,10 @@
 package com.imap143.realworld.article.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleViewer;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
 
@@ -10,20 +14,56 @@ import java.util.stream.Collectors;
 @Getter
 public class MultiArticleResponseDTO {
     private final List<ArticleResponseDTO> articles;
-    private final int articlesCount;
+    // Total number of articles matching the listing, not just this page.
+    private final long articlesCount;
+    // Only set in cursor mode, and only when more articles follow.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String nextCursor;
 
-    private MultiArticleResponseDTO(List<ArticleResponseDTO> articles) {
+    private MultiArticleResponseDTO(List<ArticleResponseDTO> articles, long articlesCount, String nextCursor) {
         this.articles = articles;
-        this.articlesCount = articles.size();
+        this.articlesCount = articlesCount;
+        this.nextCursor = nextCursor;
     }
 
-    public static MultiArticleResponseDTO of(Page<Article> articlePage) {
-        List<ArticleResponseDTO> articles = articlePage.getContent().stream()
+    public static MultiArticleResponseDTO of(Page<Article> articlePage, ArticleViewer viewer) {
+        return new MultiArticleResponseDTO(toResponses(articlePage.getContent(), viewer), articlePage.getTotalElements(), null);
+    }
+
+    public static MultiArticleResponseDTO ofSummaries(Page<ArticleSummary> summaryPage, ArticleViewer viewer) {
+        return new MultiArticleResponseDTO(toSummaryResponses(summaryPage.getContent(), viewer), summaryPage.getTotalElements(), null);
+    }
+
+    // Seek queries fetch one row more than the limit; its presence is what tells us another page exists.
+    public static MultiArticleResponseDTO ofScroll(List<Article> fetched, int limit, long articlesCount, ArticleViewer viewer) {
+        if (fetched.size() <= limit) {
+            return new MultiArticleResponseDTO(toResponses(fetched, viewer), articlesCount, null);
+        }
+        List<Article> page = fetched.subList(0, limit);
+        return new MultiArticleResponseDTO(toResponses(page, viewer), articlesCount, ArticleCursor.after(page.get(limit - 1)).encode());
+    }
+
+    public static MultiArticleResponseDTO ofSummaryScroll(List<ArticleSummary> fetched, int limit, long articlesCount, ArticleViewer viewer) {
+        if (fetched.size() <= limit) {
+            return new MultiArticleResponseDTO(toSummaryResponses(fetched, viewer), articlesCount, null);
+        }
+        List<ArticleSummary> page = fetched.subList(0, limit);
+        return new MultiArticleResponseDTO(toSummaryResponses(page, viewer), articlesCount, ArticleCursor.after(page.get(limit - 1)).encode());
+    }
+
+    private static List<ArticleResponseDTO> toResponses(List<Article> articles, ArticleViewer viewer) {
+        return articles.stream()
                 .map(article -> new ArticleResponseDTO(
                         article,
-                        article.getAuthor().getProfile()))
+                        article.getAuthor().getProfile(),
+                        viewer.hasFavorited(article.getId()),
+                        viewer.follows(article.getAuthor().getId())))
                 .collect(Collectors.toList());
+    }
 
-        return new MultiArticleResponseDTO(articles);
+    private static List<ArticleResponseDTO> toSummaryResponses(List<ArticleSummary> summaries, ArticleViewer viewer) {
+        return summaries.stream()
+                .map(summary -> new ArticleResponseDTO(summary, viewer))
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
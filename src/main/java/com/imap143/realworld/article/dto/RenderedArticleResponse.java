@@ -0,0 +1,34 @@
+package com.imap143.realworld.article.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.DigestUtils;
+
+// A single-article response serialized once. The ETag is a hash of the bytes, so it changes with
+// anything the response shows: content, updatedAt, favoritesCount and the author's profile.
+public class RenderedArticleResponse {
+    private final byte[] json;
+    private final String etag;
+
+    private RenderedArticleResponse(byte[] json) {
+        this.json = json;
+        this.etag = DigestUtils.md5DigestAsHex(json);
+    }
+
+    public static RenderedArticleResponse render(SingleArticleResponseDTO response, ObjectMapper objectMapper) {
+        try {
+            return new RenderedArticleResponse(objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render article " + response.getSlug(), e);
+        }
+    }
+
+    // Shared with every reader of the cache; must not be modified.
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
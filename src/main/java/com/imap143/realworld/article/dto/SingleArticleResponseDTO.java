@@ -30,10 +30,10 @@ public class SingleArticleResponseDTO {
     private final ArticleResponseDTO.AuthorDTO author;
 
     public SingleArticleResponseDTO(Article article, Profile authorProfile) {
-        this(article, authorProfile, null);
+        this(article, authorProfile, false);
     }
 
-    public SingleArticleResponseDTO(Article article, Profile authorProfile, Long currentUserId) {
+    public SingleArticleResponseDTO(Article article, Profile authorProfile, boolean favorited) {
         this.slug = article.getSlug();
         this.title = article.getContent().getTitle();
         this.description = article.getContent().getDescription();
@@ -43,9 +43,7 @@ public class SingleArticleResponseDTO {
                 .collect(Collectors.toSet());
         this.createdAt = article.getCreatedAt();
         this.updatedAt = article.getUpdatedAt();
-        this.favorited = currentUserId != null &&
-                article.getFavoritedBy().stream()
-                        .anyMatch(user -> user.getId() == (currentUserId));
+        this.favorited = favorited;
         this.favoritesCount = article.getFavoritesCount();
         this.author = new ArticleResponseDTO.AuthorDTO(authorProfile);
     }
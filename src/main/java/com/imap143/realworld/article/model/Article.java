@@ -10,12 +10,16 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Set;
 
 @Table(name = "articles",
     indexes = {
-        @Index(name = "idx_article_slug", columnList = "slug")
+        @Index(name = "idx_article_slug", columnList = "slug"),
+        @Index(name = "idx_article_created_at_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_article_author_created_at_id", columnList = "author_id, created_at DESC, id DESC"),
+        @Index(name = "idx_article_fanned_out_created_at", columnList = "fanned_out, created_at")
     }
 )
 @Entity
@@ -23,6 +27,9 @@ import java.util.Set;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Article {
 
+    // Paths under /articles that are routes of their own rather than an article.
+    private static final Set<String> RESERVED_SLUGS = Set.of("search");
+
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Id
     private long id;
@@ -52,7 +59,9 @@ public class Article {
         joinColumns = @JoinColumn(name = "article_id"),
         inverseJoinColumns = @JoinColumn(name = "user_id"),
         foreignKey = @ForeignKey(name = "fk_article_favorites"),
-        inverseForeignKey = @ForeignKey(name = "fk_user_favorites")
+        inverseForeignKey = @ForeignKey(name = "fk_user_favorites"),
+        // The primary key leads with article_id; favorited listings start from the user.
+        indexes = @Index(name = "idx_article_favorites_user_article", columnList = "user_id, article_id")
     )
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Set<User> favoritedBy = new HashSet<>();
@@ -60,6 +69,16 @@ public class Article {
     @Column(unique = true)
     private String slug;
 
+    // Written only by the atomic updates in ArticleRepository, so flushing an article with a
+    // stale in-memory count never overwrites concurrent favorites.
+    @Column(name = "favorites_count", nullable = false, updatable = false)
+    private int favoritesCount;
+
+    // Set by ArticleRepository.markFannedOut once the article is in its followers' timelines;
+    // FeedFanoutRepairer fans out whatever is left unset.
+    @Column(name = "fanned_out", nullable = false, updatable = false)
+    private boolean fannedOut;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -76,22 +95,27 @@ public class Article {
     )
     private Set<Tag> tags = new HashSet<>();
 
+    // Timestamps are kept at the microsecond precision of the columns, so a loaded article and a
+    // freshly created one compare the same way in keyset cursors.
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
         slug = generateSlug();
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
+    // A title that slugs to a fixed route under /articles, such as "Search", gets a suffix so the
+    // article can still be read at /articles/{slug}.
     private String generateSlug() {
-        return content.getTitle().toLowerCase()
+        String slug = content.getTitle().toLowerCase()
                 .replaceAll("\\s+", "-")
                 .replaceAll("[^a-z0-9-]", "");
+        return RESERVED_SLUGS.contains(slug) ? slug + "-article" : slug;
     }
 
     public void update(String title, String description, String body) {
@@ -116,21 +140,18 @@ public class Article {
         comments.remove(comment);
     }
 
-    public Article addFavorite(User user) {
-        this.favoritedBy.add(user);
+    // The favorite row itself is written by ArticleRepository; these keep the loaded count in step.
+    public Article favoriteAdded() {
+        this.favoritesCount++;
         return this;
     }
 
-    public Article removeFavorite(User user) {
-        this.favoritedBy.remove(user);
+    public Article favoriteRemoved() {
+        this.favoritesCount--;
         return this;
     }
 
     public boolean isFavoritedBy(User user) {
         return this.favoritedBy.contains(user);
     }
-
-    public int getFavoritesCount() {
-        return this.favoritedBy.size();
-    }
 }
@@ -28,7 +28,9 @@ public class ArticleContent {
         joinColumns = @JoinColumn(name = "article_id"),
         inverseJoinColumns = @JoinColumn(name = "tag_id"),
         foreignKey = @ForeignKey(name = "fk_article_tags"),
-        inverseForeignKey = @ForeignKey(name = "fk_tag_articles")
+        inverseForeignKey = @ForeignKey(name = "fk_tag_articles"),
+        // The primary key leads with article_id; tag filters start from the tag.
+        indexes = @Index(name = "idx_article_tags_tag_article", columnList = "tag_id, article_id")
     )
     private Set<Tag> tags = new HashSet<>();
 
@@ -0,0 +1,50 @@
+package com.imap143.realworld.article.model;
+
+import com.imap143.realworld.exception.RealWorldException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in the newest-first article order. Clients only see the opaque encoded form.
+public record ArticleCursor(LocalDateTime createdAt, long id) {
+
+    // Sorts before every real article, so seeking past it returns the first page.
+    public static final ArticleCursor FIRST = new ArticleCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '_';
+
+    public static ArticleCursor after(Article article) {
+        return new ArticleCursor(article.getCreatedAt(), article.getId());
+    }
+
+    public static ArticleCursor after(ArticleSummary summary) {
+        return new ArticleCursor(summary.createdAt(), summary.id());
+    }
+
+    public static ArticleCursor after(FeedItem item) {
+        return new ArticleCursor(item.createdAt(), item.articleId());
+    }
+
+    // An empty value starts at the newest article.
+    public static ArticleCursor decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new ArticleCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new RealWorldException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package com.imap143.realworld.article.model;
+
+import com.imap143.realworld.exception.RealWorldException;
+
+import java.util.Collection;
+import java.util.Set;
+
+// The criteria of an article listing, also the key its total count is cached under. Criteria
+// combine with AND; several tags match with ALL (every tag) or ANY (at least one).
+public record ArticleFilter(Set<String> tags, TagMatch tagMatch, String author, String favoritedBy) {
+
+    public enum TagMatch {
+        ALL, ANY;
+
+        public static TagMatch from(String value) {
+            if (value == null || value.equalsIgnoreCase("all")) {
+                return ALL;
+            }
+            if (value.equalsIgnoreCase("any")) {
+                return ANY;
+            }
+            throw new RealWorldException("tagMatch must be all or any");
+        }
+    }
+
+    public static final int MAX_TAGS = 10;
+
+    private static final ArticleFilter UNFILTERED = new ArticleFilter(Set.of(), TagMatch.ALL, null, null);
+
+    // One tag matches the same either way, so it is always stored as ALL and both spellings share a cache entry.
+    public ArticleFilter {
+        tags = Set.copyOf(tags);
+        if (tags.size() <= 1) {
+            tagMatch = TagMatch.ALL;
+        }
+    }
+
+    public static ArticleFilter all() {
+        return UNFILTERED;
+    }
+
+    public static ArticleFilter tag(String tagName) {
+        return new ArticleFilter(Set.of(tagName), TagMatch.ALL, null, null);
+    }
+
+    public static ArticleFilter author(String username) {
+        return new ArticleFilter(Set.of(), TagMatch.ALL, username, null);
+    }
+
+    public static ArticleFilter favoritedBy(String username) {
+        return new ArticleFilter(Set.of(), TagMatch.ALL, null, username);
+    }
+
+    // From the /articles query parameters, where tag may repeat.
+    public static ArticleFilter of(Collection<String> tags, TagMatch tagMatch, String author, String favorited) {
+        Set<String> tagSet = tags == null ? Set.of() : Set.copyOf(tags);
+        if (tagSet.size() > MAX_TAGS) {
+            throw new RealWorldException("at most " + MAX_TAGS + " tags can be combined");
+        }
+        return new ArticleFilter(tagSet, tagMatch, author, favorited);
+    }
+
+    public boolean isUnfiltered() {
+        return tags.isEmpty() && author == null && favoritedBy == null;
+    }
+}
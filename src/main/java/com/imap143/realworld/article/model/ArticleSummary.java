@@ -0,0 +1,32 @@
+package com.imap143.realworld.article.model;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Read-only row of an article listing, built straight from the selected columns instead of
+// hydrating Article. body is null in the summary view.
+public record ArticleSummary(long id, String slug, String title, String description, String body,
+                             LocalDateTime createdAt, LocalDateTime updatedAt, int favoritesCount,
+                             long authorId, String authorUsername, String authorBio, String authorImage,
+                             Set<String> tags) {
+
+    // Targets of the JPQL constructor expressions; tags are filled in by a second query.
+    public ArticleSummary(long id, String slug, String title, String description, String body,
+                          LocalDateTime createdAt, LocalDateTime updatedAt, int favoritesCount,
+                          long authorId, String authorUsername, String authorBio, String authorImage) {
+        this(id, slug, title, description, body, createdAt, updatedAt, favoritesCount,
+                authorId, authorUsername, authorBio, authorImage, Set.of());
+    }
+
+    public ArticleSummary(long id, String slug, String title, String description,
+                          LocalDateTime createdAt, LocalDateTime updatedAt, int favoritesCount,
+                          long authorId, String authorUsername, String authorBio, String authorImage) {
+        this(id, slug, title, description, null, createdAt, updatedAt, favoritesCount,
+                authorId, authorUsername, authorBio, authorImage, Set.of());
+    }
+
+    public ArticleSummary withTags(Set<String> tags) {
+        return new ArticleSummary(id, slug, title, description, body, createdAt, updatedAt, favoritesCount,
+                authorId, authorUsername, authorBio, authorImage, Set.copyOf(tags));
+    }
+}
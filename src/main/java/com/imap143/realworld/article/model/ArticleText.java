@@ -0,0 +1,5 @@
+package com.imap143.realworld.article.model;
+
+// The searchable text of one article, selected without hydrating Article.
+public record ArticleText(long id, String title, String description, String body) {
+}
@@ -0,0 +1,18 @@
+package com.imap143.realworld.article.model;
+
+import com.imap143.realworld.exception.RealWorldException;
+
+// How much of each article a listing returns. SUMMARY leaves out body.
+public enum ArticleView {
+    FULL, SUMMARY;
+
+    public static ArticleView from(String value) {
+        if (value == null || value.equalsIgnoreCase("full")) {
+            return FULL;
+        }
+        if (value.equalsIgnoreCase("summary")) {
+            return SUMMARY;
+        }
+        throw new RealWorldException("view must be full or summary");
+    }
+}
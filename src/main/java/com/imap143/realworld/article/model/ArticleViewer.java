@@ -0,0 +1,17 @@
+package com.imap143.realworld.article.model;
+
+import java.util.Set;
+
+// The current user's favorites and follows, resolved only for the articles and authors of one page.
+public record ArticleViewer(Set<Long> favoritedArticleIds, Set<Long> followedAuthorIds) {
+
+    public static final ArticleViewer ANONYMOUS = new ArticleViewer(Set.of(), Set.of());
+
+    public boolean hasFavorited(long articleId) {
+        return favoritedArticleIds.contains(articleId);
+    }
+
+    public boolean follows(long authorId) {
+        return followedAuthorIds.contains(authorId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.imap143.realworld.article.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// One article in one follower's precomputed feed. Rows are written and removed with set-based
+// statements in FeedRepository and never through this entity; it exists for the mapping and for
+// reading timelines. created_at is copied from the article so a feed page is a single range
+// scan of idx_user_feed_user_created_at_article.
+@Table(name = "user_feed",
+    indexes = {
+        @Index(name = "idx_user_feed_user_created_at_article", columnList = "user_id, created_at DESC, article_id DESC"),
+        @Index(name = "idx_user_feed_article", columnList = "article_id")
+    }
+)
+@Entity
+@IdClass(FeedEntry.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FeedEntry {
+
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+
+    @Id
+    @Column(name = "article_id")
+    private long articleId;
+
+    // Lets unfollow prune a timeline without joining articles.
+    @Column(name = "author_id", nullable = false)
+    private long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Deleting an article removes it from every timeline in the same statement.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(
+        name = "article_id",
+        insertable = false,
+        updatable = false,
+        foreignKey = @ForeignKey(name = "fk_user_feed_article")
+    )
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Article article;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long userId;
+        private long articleId;
+    }
+}
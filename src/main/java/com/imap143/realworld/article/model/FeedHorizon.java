@@ -0,0 +1,32 @@
+package com.imap143.realworld.article.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// How far back one user's timeline is known to hold every followed article. A backfill that
+// stops short of an author's oldest articles moves it up to the newest article it left out;
+// older positions may have gaps and are read from the follow graph instead. Like FeedEntry it
+// is written only through set-based statements in FeedRepository, and only ever moves newer.
+@Table(name = "user_feed_horizons")
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FeedHorizon {
+
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "article_id", nullable = false)
+    private long articleId;
+}
@@ -0,0 +1,17 @@
+package com.imap143.realworld.article.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+// Position of one article in a feed, enough to merge feed sources before loading any article.
+public record FeedItem(LocalDateTime createdAt, long articleId) {
+
+    public static final Comparator<FeedItem> NEWEST_FIRST = Comparator
+            .comparing(FeedItem::createdAt).thenComparingLong(FeedItem::articleId).reversed();
+
+    // The same "strictly after" test the keyset queries apply in SQL.
+    public boolean isAfter(ArticleCursor cursor) {
+        int byTime = createdAt.compareTo(cursor.createdAt());
+        return byTime < 0 || (byTime == 0 && articleId < cursor.id());
+    }
+}
@@ -0,0 +1,62 @@
+package com.imap143.realworld.article.repository;
+
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Turns any combination of listing criteria into the joins and conditions of one statement over
+// "Article a JOIN a.author u". Every join matches at most one row per article, so pages and counts
+// need no DISTINCT:
+// - ALL tags: one join per tag (tag names are unique), each an index probe on article_tags.
+// - ANY of several tags: an EXISTS over article_tags with IN.
+// - favorited: a join to the single favoriting user, driven by idx_article_favorites_user_article.
+final class ArticleFilterQuery {
+
+    private final StringBuilder joins = new StringBuilder();
+    private final List<String> conditions = new ArrayList<>();
+    private final Map<String, Object> parameters = new HashMap<>();
+
+    ArticleFilterQuery(ArticleFilter filter, ArticleCursor cursor) {
+        if (filter.tagMatch() == ArticleFilter.TagMatch.ALL) {
+            int i = 0;
+            for (String tag : filter.tags()) {
+                joins.append(" JOIN a.content.tags t").append(i);
+                conditions.add("t" + i + ".tagName = :tag" + i);
+                parameters.put("tag" + i, tag);
+                i++;
+            }
+        } else {
+            conditions.add("EXISTS (SELECT 1 FROM Article ta JOIN ta.content.tags t WHERE ta.id = a.id AND t.tagName IN :tags)");
+            parameters.put("tags", filter.tags());
+        }
+        if (filter.author() != null) {
+            conditions.add("u.profile.username = :author");
+            parameters.put("author", filter.author());
+        }
+        if (filter.favoritedBy() != null) {
+            joins.append(" JOIN a.favoritedBy f");
+            conditions.add("f.profile.username = :favoritedBy");
+            parameters.put("favoritedBy", filter.favoritedBy());
+        }
+        if (cursor != null) {
+            conditions.add(ArticleRepository.AFTER_CURSOR);
+            parameters.put("createdAt", cursor.createdAt());
+            parameters.put("id", cursor.id());
+        }
+    }
+
+    // Joins and WHERE clause to append after the FROM clause.
+    String fromRest() {
+        return conditions.isEmpty() ? joins.toString() : joins + " WHERE " + String.join(" AND ", conditions);
+    }
+
+    <Q extends Query> Q bind(Q query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -1,24 +1,119 @@
 package com.imap143.realworld.article.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
-import com.imap143.realworld.user.model.User;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleText;
+import com.imap143.realworld.article.model.FeedItem;
 
-public interface ArticleRepository extends JpaRepository<Article, Long> {
+public interface ArticleRepository extends JpaRepository<Article, Long>, ArticleSummaryRepository {
     Article save(Article article);
+    @EntityGraph(attributePaths = "author")
     Optional<Article> findBySlug(String slug);
-    
-    Page<Article> findByContent_Tags_TagName(String tagName, Pageable pageable);
-    
-    Page<Article> findByAuthor_Profile_Username(String username, Pageable pageable);
-    
-    Page<Article> findByFavoritedBy_Profile_Username(String username, Pageable pageable);
-
-    Page<Article> findByAuthorInOrderByCreatedAtDesc(Set<User> authors, Pageable pageable);
+
+    // Everything a single-article response shows, in one statement.
+    @Query("SELECT a FROM Article a JOIN FETCH a.author LEFT JOIN FETCH a.content.tags WHERE a.slug = :slug")
+    Optional<Article> findViewBySlug(@Param("slug") String slug);
+
+    // Listings go through ArticleSummaryRepository and fetch one extra row instead of a COUNT;
+    // totals come from ArticleSummaryRepository.countArticles through ArticleCountCache.
+
+    // Keyset ("seek") condition and order used by ArticleSummaryRepository: newest first,
+    // strictly after the given (createdAt, id) position. They walk idx_article_created_at_id from
+    // the cursor, so page 10,000 costs the same as page 1.
+    String AFTER_CURSOR = "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id))";
+    String NEWEST_FIRST = " ORDER BY a.createdAt DESC, a.id DESC";
+
+    // One author's articles as feed positions, read from idx_article_author_created_at_id.
+    @Query("SELECT new com.imap143.realworld.article.model.FeedItem(a.createdAt, a.id) FROM Article a "
+            + "WHERE a.author.id = :authorId AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<FeedItem> findFeedItemsByAuthorAfter(@Param("authorId") long authorId,
+                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Limit limit);
+
+    // The same positions by offset from the newest, for finding the first article a backfill of
+    // that many leaves out.
+    @Query("SELECT new com.imap143.realworld.article.model.FeedItem(a.createdAt, a.id) FROM Article a "
+            + "WHERE a.author.id = :authorId" + NEWEST_FIRST)
+    List<FeedItem> findFeedItemsByAuthor(@Param("authorId") long authorId, Pageable pageable);
+
+    // Articles of everyone the follower follows, with the follow graph joined in SQL from
+    // idx_user_follows_follower_followed instead of bound as a parameter list. Each followed author
+    // is a range of idx_article_author_created_at_id, so the statement and its cached plan are the
+    // same whoever asks.
+    String FOLLOWED_BY = "a.author.id IN (SELECT f.id FROM User u JOIN u.following f WHERE u.id = :followerId)";
+
+    // Paged by offset as well, for an offset page that starts somewhere past the cursor.
+    @Query("SELECT a FROM Article a JOIN FETCH a.author WHERE " + FOLLOWED_BY + " AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<Article> findFollowedByAfter(@Param("followerId") long followerId,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") long id,
+                                      Pageable pageable);
+
+    // Every article a feed can reach, each counted once however it got there.
+    @Query("SELECT COUNT(a) FROM Article a WHERE " + FOLLOWED_BY)
+    long countFollowedBy(@Param("followerId") long followerId);
+
+    // A merged feed page by id; the caller restores the feed order.
+    @Query("SELECT a FROM Article a JOIN FETCH a.author WHERE a.id IN :ids")
+    List<Article> findWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Search index rebuilds read the id space in ranges, several at once.
+    @Query("SELECT COALESCE(MAX(a.id), 0) FROM Article a")
+    long findMaxId();
+
+    @Query("SELECT new com.imap143.realworld.article.model.ArticleText(a.id, a.content.title, a.content.description, a.content.body) "
+            + "FROM Article a WHERE a.id >= :fromId AND a.id < :toId")
+    List<ArticleText> findTextsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // Both statements hit the (article_id, user_id) primary key and return the number of rows changed.
+    // ON CONFLICT turns a concurrent duplicate into a no-op instead of a constraint violation.
+    @Modifying
+    @Query(value = "INSERT INTO article_favorites (article_id, user_id) VALUES (:articleId, :userId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertFavorite(@Param("articleId") long articleId, @Param("userId") long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM article_favorites WHERE article_id = :articleId AND user_id = :userId",
+            nativeQuery = true)
+    int deleteFavorite(@Param("articleId") long articleId, @Param("userId") long userId);
+
+    // Which of a page's articles the user has favorited: one probe per id on the primary key.
+    @Query(value = "SELECT article_id FROM article_favorites WHERE user_id = :userId AND article_id IN (:articleIds)",
+            nativeQuery = true)
+    List<Long> findFavoritedArticleIds(@Param("userId") long userId, @Param("articleIds") Collection<Long> articleIds);
+
+    @Modifying
+    @Query("UPDATE Article a SET a.fannedOut = true WHERE a.id = :articleId")
+    void markFannedOut(@Param("articleId") long articleId);
+
+    // Oldest first; only the short unset range of idx_article_fanned_out_created_at is read.
+    @Query("SELECT a FROM Article a JOIN FETCH a.author "
+            + "WHERE a.fannedOut = false AND a.createdAt < :before ORDER BY a.createdAt, a.id")
+    List<Article> findNotFannedOut(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Article a SET a.favoritesCount = a.favoritesCount + 1 WHERE a.id = :articleId")
+    void incrementFavoritesCount(@Param("articleId") long articleId);
+
+    @Modifying
+    @Query("UPDATE Article a SET a.favoritesCount = a.favoritesCount - 1 WHERE a.id = :articleId AND a.favoritesCount > 0")
+    void decrementFavoritesCount(@Param("articleId") long articleId);
+
+    // Recomputes favorites_count from article_favorites and returns how many articles had drifted.
+    @Modifying
+    @Query(value = "UPDATE articles a SET favorites_count = "
+            + "(SELECT COUNT(*) FROM article_favorites f WHERE f.article_id = a.id) "
+            + "WHERE a.favorites_count <> (SELECT COUNT(*) FROM article_favorites f WHERE f.article_id = a.id)",
+            nativeQuery = true)
+    int reconcileFavoritesCounts();
 }
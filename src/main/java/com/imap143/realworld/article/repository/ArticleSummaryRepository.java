@@ -0,0 +1,22 @@
+package com.imap143.realworld.article.repository;
+
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+// Listing reads that select only the columns a list response needs, without loading entities.
+// Any combination of ArticleFilter criteria runs as a single statement.
+public interface ArticleSummaryRepository {
+
+    Slice<ArticleSummary> findSummaries(ArticleFilter filter, Pageable pageable, ArticleView view);
+
+    // Newest first, strictly after the cursor.
+    List<ArticleSummary> findSummariesAfter(ArticleFilter filter, ArticleCursor cursor, int limit, ArticleView view);
+
+    long countArticles(ArticleFilter filter);
+}
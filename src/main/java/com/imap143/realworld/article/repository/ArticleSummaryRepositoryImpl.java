@@ -0,0 +1,84 @@
+package com.imap143.realworld.article.repository;
+
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// One statement for the page rows (author columns joined in, body only in the full view) and one
+// IN query for the tags of the whole page.
+class ArticleSummaryRepositoryImpl implements ArticleSummaryRepository {
+
+    private static final String SELECT_SUMMARY = "SELECT new " + ArticleSummary.class.getName()
+            + "(a.id, a.slug, a.content.title, a.content.description, %s"
+            + "a.createdAt, a.updatedAt, a.favoritesCount, u.id, u.profile.username, u.profile.bio, u.profile.image) "
+            + "FROM Article a JOIN a.author u";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<ArticleSummary> findSummaries(ArticleFilter filter, Pageable pageable, ArticleView view) {
+        List<ArticleSummary> rows = query(filter, null, view)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<ArticleSummary> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(withTags(content), pageable, hasNext);
+    }
+
+    @Override
+    public List<ArticleSummary> findSummariesAfter(ArticleFilter filter, ArticleCursor cursor, int limit, ArticleView view) {
+        return withTags(query(filter, cursor, view)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public long countArticles(ArticleFilter filter) {
+        ArticleFilterQuery filterQuery = new ArticleFilterQuery(filter, null);
+        return filterQuery.bind(entityManager.createQuery(
+                        "SELECT COUNT(a) FROM Article a JOIN a.author u" + filterQuery.fromRest(), Long.class))
+                .getSingleResult();
+    }
+
+    private TypedQuery<ArticleSummary> query(ArticleFilter filter, ArticleCursor cursor, ArticleView view) {
+        ArticleFilterQuery filterQuery = new ArticleFilterQuery(filter, cursor);
+        String jpql = String.format(SELECT_SUMMARY, view == ArticleView.FULL ? "a.content.body, " : "")
+                + filterQuery.fromRest()
+                + (cursor != null ? ArticleRepository.NEWEST_FIRST : "");
+        return filterQuery.bind(entityManager.createQuery(jpql, ArticleSummary.class));
+    }
+
+    private List<ArticleSummary> withTags(List<ArticleSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+
+        List<Long> ids = summaries.stream().map(ArticleSummary::id).toList();
+        Map<Long, Set<String>> tagsByArticle = new HashMap<>();
+        entityManager.createQuery(
+                        "SELECT a.id, t.tagName FROM Article a JOIN a.content.tags t WHERE a.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(row -> tagsByArticle.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]));
+
+        return summaries.stream()
+                .map(summary -> summary.withTags(tagsByArticle.getOrDefault(summary.id(), Set.of())))
+                .toList();
+    }
+}
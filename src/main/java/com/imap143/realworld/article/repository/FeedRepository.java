@@ -0,0 +1,145 @@
+package com.imap143.realworld.article.repository;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.FeedEntry;
+import com.imap143.realworld.article.model.FeedItem;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Reads walk idx_user_feed_user_created_at_article for one user, so a feed page costs the same
+// whoever and however many people the user follows. They stop at the user's FeedHorizon: older
+// entries may have gaps, and FeedReader reads those positions from the follow graph instead.
+public interface FeedRepository extends JpaRepository<FeedEntry, FeedEntry.Key> {
+
+    String TIMELINE = "SELECT a FROM FeedEntry e JOIN e.article a JOIN FETCH a.author WHERE e.userId = :userId";
+    String AFTER_CURSOR = " AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.articleId < :id))";
+    String NEWEST_FIRST = " ORDER BY e.createdAt DESC, e.articleId DESC";
+    String TRUSTED = " AND NOT EXISTS (SELECT h FROM FeedHorizon h WHERE h.userId = e.userId"
+            + " AND (e.createdAt < h.createdAt OR (e.createdAt = h.createdAt AND e.articleId < h.articleId)))";
+    String OLDER_HORIZON = " AND (created_at < :createdAt OR (created_at = :createdAt AND article_id < :articleId))";
+
+    @Query(TIMELINE + TRUSTED + NEWEST_FIRST)
+    List<Article> findTimeline(@Param("userId") long userId, Pageable pageable);
+
+    @Query(TIMELINE + TRUSTED + AFTER_CURSOR + NEWEST_FIRST)
+    List<Article> findTimelineAfter(@Param("userId") long userId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") long id, Limit limit);
+
+    // The same walk without touching articles, for merging with read-time sources.
+    @Query("SELECT new com.imap143.realworld.article.model.FeedItem(e.createdAt, e.articleId) FROM FeedEntry e "
+            + "WHERE e.userId = :userId" + TRUSTED + AFTER_CURSOR + NEWEST_FIRST)
+    List<FeedItem> findTimelineItemsAfter(@Param("userId") long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") long id, Limit limit);
+
+    // Where an offset past the end of the timeline continues from: how many entries it holds and
+    // the oldest of them.
+    @Query("SELECT COUNT(e) FROM FeedEntry e WHERE e.userId = :userId" + TRUSTED)
+    long countTimeline(@Param("userId") long userId);
+
+    @Query("SELECT new com.imap143.realworld.article.model.FeedItem(e.createdAt, e.articleId) FROM FeedEntry e "
+            + "WHERE e.userId = :userId" + TRUSTED + " ORDER BY e.createdAt ASC, e.articleId ASC")
+    List<FeedItem> findTimelineEnd(@Param("userId") long userId, Limit limit);
+
+    long countByUserId(long userId);
+
+    // The inserts below can race each other: a follow backfill and a fan-out committing at the
+    // same time both copy the same article for the same user. ON CONFLICT turns the loser's row
+    // into a no-op instead of a constraint violation that would fail the whole statement.
+
+    // Copies one article into the timeline of every follower of its author, reading followers from
+    // the (followed_id, follower_id) primary key. Selecting from articles makes it a no-op once the
+    // article is gone.
+    @Modifying
+    @Query(value = "INSERT INTO user_feed (user_id, article_id, author_id, created_at) "
+            + "SELECT f.follower_id, a.id, a.author_id, a.created_at FROM articles a "
+            + "JOIN user_follows f ON f.followed_id = a.author_id "
+            + "WHERE a.id = :articleId "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int fanOut(@Param("articleId") long articleId);
+
+    // The newest articles of a newly followed author, at most as many as a timeline keeps.
+    @Modifying
+    @Query(value = "INSERT INTO user_feed (user_id, article_id, author_id, created_at) "
+            + "SELECT :followerId, a.id, a.author_id, a.created_at FROM articles a "
+            + "WHERE a.author_id = :authorId "
+            + "ORDER BY a.created_at DESC, a.id DESC LIMIT :limit "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int backfill(@Param("followerId") long followerId, @Param("authorId") long authorId, @Param("limit") int limit);
+
+    // The newest articles of an author back in every follower's timeline, for an author who stops
+    // being merged at read time.
+    @Modifying
+    @Query(value = "INSERT INTO user_feed (user_id, article_id, author_id, created_at) "
+            + "SELECT f.follower_id, a.id, a.author_id, a.created_at FROM user_follows f "
+            + "JOIN (SELECT id, author_id, created_at FROM articles WHERE author_id = :authorId "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit) a ON a.author_id = f.followed_id "
+            + "WHERE f.followed_id = :authorId "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int backfillFollowers(@Param("authorId") long authorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_feed WHERE user_id = :followerId AND author_id = :authorId", nativeQuery = true)
+    int prune(@Param("followerId") long followerId, @Param("authorId") long authorId);
+
+    // Moves a FeedHorizon up to the given position, creating it where missing. Horizons never
+    // move back, so the insert leaves an existing one alone and the update only raises it.
+    @Modifying
+    @Query(value = "INSERT INTO user_feed_horizons (user_id, created_at, article_id) "
+            + "VALUES (:userId, :createdAt, :articleId) "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertHorizon(@Param("userId") long userId, @Param("createdAt") LocalDateTime createdAt,
+                      @Param("articleId") long articleId);
+
+    @Modifying
+    @Query(value = "UPDATE user_feed_horizons SET created_at = :createdAt, article_id = :articleId "
+            + "WHERE user_id = :userId" + OLDER_HORIZON,
+            nativeQuery = true)
+    int raiseHorizon(@Param("userId") long userId, @Param("createdAt") LocalDateTime createdAt,
+                     @Param("articleId") long articleId);
+
+    // The same for every follower of an author, after backfillFollowers.
+    @Modifying
+    @Query(value = "INSERT INTO user_feed_horizons (user_id, created_at, article_id) "
+            + "SELECT follower_id, :createdAt, :articleId FROM user_follows WHERE followed_id = :authorId "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertFollowerHorizons(@Param("authorId") long authorId, @Param("createdAt") LocalDateTime createdAt,
+                               @Param("articleId") long articleId);
+
+    @Modifying
+    @Query(value = "UPDATE user_feed_horizons SET created_at = :createdAt, article_id = :articleId "
+            + "WHERE user_id IN (SELECT follower_id FROM user_follows WHERE followed_id = :authorId)" + OLDER_HORIZON,
+            nativeQuery = true)
+    int raiseFollowerHorizons(@Param("authorId") long authorId, @Param("createdAt") LocalDateTime createdAt,
+                              @Param("articleId") long articleId);
+
+    // Once no entry of a timeline is older than its horizon, the end of the timeline is where
+    // FeedReader turns to the follow graph anyway, and the horizon says nothing more.
+    @Modifying
+    @Query(value = "DELETE FROM user_feed_horizons h WHERE NOT EXISTS (SELECT 1 FROM user_feed e "
+            + "WHERE e.user_id = h.user_id "
+            + "AND (e.created_at < h.created_at OR (e.created_at = h.created_at AND e.article_id < h.article_id)))",
+            nativeQuery = true)
+    int deletePassedHorizons();
+
+    // Drops everything past the newest maxEntries of each timeline.
+    @Modifying
+    @Query(value = "DELETE FROM user_feed WHERE (user_id, article_id) IN ("
+            + "SELECT user_id, article_id FROM ("
+            + "SELECT user_id, article_id, ROW_NUMBER() OVER "
+            + "(PARTITION BY user_id ORDER BY created_at DESC, article_id DESC) AS position FROM user_feed"
+            + ") ranked WHERE position > :maxEntries)",
+            nativeQuery = true)
+    int trim(@Param("maxEntries") int maxEntries);
+}
@@ -0,0 +1,73 @@
+package com.imap143.realworld.article.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imap143.realworld.article.model.ArticleFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Total article counts per listing filter, so paging a listing does not run COUNT on every request.
+@Component
+public class ArticleCountCache implements MeterBinder {
+
+    private final Cache<ArticleFilter, Long> cache;
+    private final long approximateAbove;
+
+    public ArticleCountCache(ArticleCountCacheProperties properties) {
+        this.approximateAbove = properties.getApproximateAbove();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public long get(ArticleFilter filter, Function<ArticleFilter, Long> counter) {
+        return cache.get(filter, counter);
+    }
+
+    public void put(ArticleFilter filter, long count) {
+        cache.put(filter, count);
+    }
+
+    // Creating or deleting an article can change any listing.
+    public void invalidateAll() {
+        invalidateIf(filter -> true);
+    }
+
+    public void invalidateFavorited() {
+        invalidateIf(filter -> filter.favoritedBy() != null);
+    }
+
+    // Invalidated again once the transaction ends: a count taken while the write was uncommitted,
+    // or that saw a write which then rolled back, would otherwise stay cached.
+    private void invalidateIf(Predicate<ArticleFilter> affected) {
+        Runnable invalidation = () -> cache.asMap().entrySet()
+                .removeIf(entry -> affected.test(entry.getKey()) && !isApproximate(entry.getValue()));
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private boolean isApproximate(long count) {
+        return approximateAbove > 0 && count >= approximateAbove;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "articles.counts");
+    }
+}
@@ -0,0 +1,21 @@
+package com.imap143.realworld.article.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "articles.count-cache")
+public class ArticleCountCacheProperties {
+    private long maximumSize = 10_000;
+    // Upper bound on staleness, e.g. for writes made on another node.
+    private Duration ttl = Duration.ofMinutes(5);
+    // Totals at or above this are approximate: writes no longer invalidate them and they only
+    // refresh on ttl. 0 keeps every total exact.
+    private long approximateAbove = 0;
+}
@@ -0,0 +1,130 @@
+package com.imap143.realworld.article.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.tag.model.Tag;
+import com.imap143.realworld.user.service.ProfileChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version counters per listing criterion, turned into weak ETags so an unchanged anonymous listing
+// can be answered with 304 before any query runs. There is no Last-Modified: its whole-second
+// resolution would answer If-Modified-Since with 304 for a change made later in the same second.
+// Every listing shows favoritesCount and the author profile, so a change to an article bumps every
+// criterion that can match it: all articles, its author, each of its tags and favorited listings.
+// Favorited listings share one counter, since finding who favorited an article would take a query.
+// A combined filter is as new as the newest of its criteria.
+@Component
+public class ArticleListVersions {
+
+    static final long MAX_TRACKED_FILTERS = 100_000;
+    private static final String ALL_KEY = "all";
+    private static final String FAVORITED_KEY = "favorited";
+
+    // Part of every ETag, so tags handed out before a restart never match.
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<String, Long> stamps;
+    // Stands in for filters without a stamp of their own. It is raised past every evicted stamp, so
+    // losing an entry can only change an ETag, never bring an old one back.
+    private volatile long floor;
+
+    public ArticleListVersions() {
+        this.stamps = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_FILTERS)
+                .<String, Long>evictionListener((key, stamp, cause) -> raiseFloor(stamp))
+                .build();
+    }
+
+    public String etag(ArticleFilter filter) {
+        long stamp = floor;
+        for (String key : keysOf(filter)) {
+            Long keyStamp = stamps.getIfPresent(key);
+            if (keyStamp != null && keyStamp > stamp) {
+                stamp = keyStamp;
+            }
+        }
+        return "W/\"" + epoch + "-" + stamp + "\"";
+    }
+
+    // favoritedListsAffected is false only for a new article, which nobody has favorited yet.
+    public void articleChanged(Article article, boolean favoritedListsAffected) {
+        List<String> keys = new ArrayList<>();
+        keys.add(ALL_KEY);
+        keys.add(authorKey(article.getAuthor().getProfile().getUsername()));
+        for (Tag tag : article.getContent().getTags()) {
+            keys.add(tagKey(tag.getTagName()));
+        }
+        if (favoritedListsAffected) {
+            keys.add(FAVORITED_KEY);
+        }
+        bumpNowAndOnCompletion(keys);
+    }
+
+    // For changes that can touch any listing, such as an author's profile.
+    public void allChanged() {
+        raiseFloor(clock.incrementAndGet());
+        stamps.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProfileChanged(ProfileChangedEvent event) {
+        allChanged();
+    }
+
+    // Bumped now and again once the transaction ends: a listing read between the two still gets a
+    // newer ETag than anything served before the write committed.
+    private void bumpNowAndOnCompletion(List<String> keys) {
+        bump(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(keys);
+                }
+            });
+        }
+    }
+
+    private void bump(List<String> keys) {
+        long stamp = clock.incrementAndGet();
+        keys.forEach(key -> stamps.put(key, stamp));
+    }
+
+    private static List<String> keysOf(ArticleFilter filter) {
+        if (filter.isUnfiltered()) {
+            return List.of(ALL_KEY);
+        }
+        List<String> keys = new ArrayList<>();
+        filter.tags().forEach(tag -> keys.add(tagKey(tag)));
+        if (filter.author() != null) {
+            keys.add(authorKey(filter.author()));
+        }
+        if (filter.favoritedBy() != null) {
+            keys.add(FAVORITED_KEY);
+        }
+        return keys;
+    }
+
+    private static String tagKey(String tagName) {
+        return "tag:" + tagName;
+    }
+
+    private static String authorKey(String username) {
+        return "author:" + username;
+    }
+
+    private synchronized void raiseFloor(long stamp) {
+        if (stamp > floor) {
+            floor = stamp;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.repository.ArticleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Keeps the ArticleSearchIndex in step with the articles table: built on startup, rebuilt on a
+// schedule to drop dead documents, and updated as articles are written. Writes reach the index
+// only once committed, so a search never finds an article that then rolls back.
+@Slf4j
+@Component
+public class ArticleSearch implements SmartInitializingSingleton {
+
+    private final ArticleSearchIndex index;
+    private final ArticleRepository articleRepository;
+    private final ArticleSearchProperties properties;
+
+    public ArticleSearch(ArticleSearchIndex index, ArticleRepository articleRepository, ArticleSearchProperties properties) {
+        this.index = index;
+        this.articleRepository = articleRepository;
+        this.properties = properties;
+    }
+
+    // After every singleton, so the schema exists and the SQL init scripts have run.
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // The ranking down to the end of the page, capped at maxResults.
+    public ArticleSearchIndex.Hits search(String query, Pageable pageable) {
+        long end = Math.min(pageable.getOffset() + pageable.getPageSize(), properties.getMaxResults());
+        return index.search(query, (int) end);
+    }
+
+    // The text is read now, while the entity is current; it is indexed after the commit.
+    public void articleSaved(Article article) {
+        long articleId = article.getId();
+        String title = article.getContent().getTitle();
+        String description = article.getContent().getDescription();
+        String body = article.getContent().getBody();
+        afterCommit(() -> index.put(ArticleSearchIndex.analyze(articleId, title, description, body)));
+    }
+
+    public void articleDeleted(long articleId) {
+        afterCommit(() -> index.remove(articleId));
+    }
+
+    // Id ranges are read and tokenized on a pool, a bounded number ahead of the single thread
+    // that adds them to the new contents; searches use the old contents until it is installed.
+    @Scheduled(cron = "${articles.search.rebuild-cron:-}")
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        int threads = Math.max(1, properties.getRebuildThreads());
+        long chunk = properties.getRebuildChunkSize();
+        long maxId = articleRepository.findMaxId();
+        ArticleSearchIndex.Rebuild rebuild = index.startRebuild();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("search-rebuild-"));
+        try {
+            Deque<Future<List<ArticleSearchIndex.Document>>> inFlight = new ArrayDeque<>();
+            long fromId = 1;
+            while (fromId <= maxId || !inFlight.isEmpty()) {
+                while (fromId <= maxId && inFlight.size() < threads * 2) {
+                    long from = fromId;
+                    inFlight.add(pool.submit(() -> analyze(from, from + chunk)));
+                    fromId += chunk;
+                }
+                inFlight.poll().get().forEach(rebuild::add);
+            }
+            rebuild.install();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search index rebuild failed", e.getCause());
+        } finally {
+            // A no-op once installed.
+            rebuild.abandon();
+            pool.shutdownNow();
+        }
+        log.info("Indexed {} articles for search in {} ms, {} bytes of postings",
+                index.size(), (System.nanoTime() - started) / 1_000_000, index.postingBytes());
+    }
+
+    private List<ArticleSearchIndex.Document> analyze(long fromId, long toId) {
+        return articleRepository.findTextsByIdRange(fromId, toId).stream()
+                .map(text -> ArticleSearchIndex.analyze(text.id(), text.title(), text.description(), text.body()))
+                .toList();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.imap143.realworld.article.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// In-memory inverted index over article title, description and body, ranked with BM25. Each
+// indexed version of an article gets the next internal document number, so posting lists are
+// append-only and stay delta-compressed; an edit or delete only marks the old document dead.
+// Dead documents still count towards term document frequencies until the next rebuild, which
+// starts from fresh numbers.
+@Component
+public class ArticleSearchIndex implements MeterBinder {
+
+    // The usual BM25 constants: k1 bounds how much repeating a term helps, b how strongly long
+    // documents are normalized.
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    // A word in the title says more about an article than one in its body.
+    static final int TITLE_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 2;
+    static final int BODY_WEIGHT = 1;
+
+    static final int MAX_QUERY_TERMS = 16;
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Contents contents = new Contents();
+    // Set while a rebuild runs; changes made meanwhile are repeated on the rebuilt contents.
+    private Rebuild rebuilding;
+
+    // An article's terms with their weighted frequencies; length is their sum.
+    public record Document(long articleId, Map<String, Integer> frequencies, int length) {
+    }
+
+    // Best matches first; total counts every article that matched at least one term.
+    public record Hits(List<Long> articleIds, int total) {
+
+        public static final Hits NONE = new Hits(List.of(), 0);
+    }
+
+    // Lower-cased runs of letters and digits. Safe to call from any thread.
+    public static Document analyze(long articleId, String title, String description, String body) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(title, TITLE_WEIGHT, frequencies)
+                + count(description, DESCRIPTION_WEIGHT, frequencies)
+                + count(body, BODY_WEIGHT, frequencies);
+        return new Document(articleId, frequencies, length);
+    }
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            contents.add(document);
+            if (rebuilding != null) {
+                rebuilding.pending.add(rebuilt -> rebuilt.add(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long articleId) {
+        lock.writeLock().lock();
+        try {
+            contents.remove(articleId);
+            if (rebuilding != null) {
+                rebuilding.pending.add(rebuilt -> rebuilt.remove(articleId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Document-at-a-time: the query terms' posting lists are walked together in document order,
+    // each matching document is scored once, and a heap keeps the best limit of them. Ties go
+    // to the more recently indexed article.
+    public Hits search(String query, int limit) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Hits.NONE;
+        }
+        lock.readLock().lock();
+        try {
+            Contents current = contents;
+            PostingList.Cursor[] cursors = new PostingList.Cursor[terms.size()];
+            float[] idf = new float[terms.size()];
+            int active = 0;
+            for (String term : terms) {
+                PostingList postings = current.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                PostingList.Cursor cursor = postings.cursor();
+                if (cursor.next()) {
+                    cursors[active] = cursor;
+                    idf[active++] = idf(current.liveDocuments, postings.size());
+                }
+            }
+            return collect(current, cursors, idf, active, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Starts a rebuild into empty contents that replace the current ones on install(). Until
+    // then searches keep using the current contents.
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != null) {
+                throw new IllegalStateException("A search index rebuild is already running");
+            }
+            rebuilding = new Rebuild();
+            return rebuilding;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return contents.liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList postings : contents.postings.values()) {
+                bytes += postings.bytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("articles.search.documents", this, ArticleSearchIndex::size)
+                .description("Articles in the search index")
+                .register(registry);
+        Gauge.builder("articles.search.posting-bytes", this, ArticleSearchIndex::postingBytes)
+                .description("Heap held by compressed search posting lists")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    // Filled by one thread, without the index lock, in any article order.
+    public final class Rebuild {
+        private final Contents rebuilt = new Contents();
+        private final List<Consumer<Contents>> pending = new ArrayList<>();
+
+        private Rebuild() {
+        }
+
+        public void add(Document document) {
+            rebuilt.add(document);
+        }
+
+        // Changes that arrived during the rebuild are at least as new as anything it read, so
+        // they are applied last, in the order they were made.
+        public void install() {
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(rebuilt));
+                contents = rebuilt;
+                rebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Drops the rebuild and keeps the current contents.
+        public void abandon() {
+            lock.writeLock().lock();
+            try {
+                if (rebuilding == this) {
+                    rebuilding = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // The first active cursors are positioned on their first document; an exhausted cursor is
+    // swapped out for the last active one.
+    private static Hits collect(Contents current, PostingList.Cursor[] cursors, float[] idf, int active, int limit) {
+        record Hit(int document, float score) {
+        }
+        Comparator<Hit> worstFirst = Comparator.comparingDouble(Hit::score).thenComparingInt(Hit::document);
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, worstFirst);
+        float averageLength = current.liveDocuments == 0 ? 1 : (float) current.liveLength / current.liveDocuments;
+
+        int total = 0;
+        while (active > 0) {
+            int document = Integer.MAX_VALUE;
+            for (int i = 0; i < active; i++) {
+                document = Math.min(document, cursors[i].document());
+            }
+            float normalization = K1 * (1 - B + B * current.lengths[document] / averageLength);
+            float score = 0;
+            for (int i = 0; i < active; ) {
+                PostingList.Cursor cursor = cursors[i];
+                if (cursor.document() == document) {
+                    int frequency = cursor.frequency();
+                    score += idf[i] * frequency * (K1 + 1) / (frequency + normalization);
+                    if (!cursor.next()) {
+                        active--;
+                        cursors[i] = cursors[active];
+                        idf[i] = idf[active];
+                        continue;
+                    }
+                }
+                i++;
+            }
+            if (!current.live.get(document)) {
+                continue;
+            }
+            total++;
+            // Documents arrive in ascending order, so a later one wins a tie with the worst kept.
+            if (best.size() < limit) {
+                best.add(new Hit(document, score));
+            } else if (score >= best.peek().score()) {
+                best.poll();
+                best.add(new Hit(document, score));
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(worstFirst.reversed());
+        List<Long> articleIds = new ArrayList<>(ranked.size());
+        for (Hit hit : ranked) {
+            articleIds.add(current.articleIds[hit.document()]);
+        }
+        return new Hits(Collections.unmodifiableList(articleIds), total);
+    }
+
+    // Probabilistic IDF, kept positive even for terms in most documents.
+    private static float idf(int documents, int documentFrequency) {
+        return (float) Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static List<String> queryTerms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        forEachTerm(query, terms::add);
+        return terms.stream().limit(MAX_QUERY_TERMS).toList();
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        int[] terms = {0};
+        if (text != null) {
+            forEachTerm(text, term -> {
+                frequencies.merge(term, weight, Integer::sum);
+                terms[0]++;
+            });
+        }
+        return terms[0] * weight;
+    }
+
+    private static void forEachTerm(String text, Consumer<String> consumer) {
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); ) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else if (!term.isEmpty()) {
+                consumer.accept(term.toString());
+                term.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+    }
+
+    // Postings plus, per document number, the article it holds, its length and whether it is
+    // still the article's current version.
+    private static final class Contents {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Long, Integer> documentOf = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private long[] articleIds = new long[1024];
+        private int[] lengths = new int[1024];
+        private int documents;
+        private int liveDocuments;
+        private long liveLength;
+
+        void add(Document document) {
+            remove(document.articleId());
+            int number = documents++;
+            if (number == articleIds.length) {
+                articleIds = Arrays.copyOf(articleIds, number * 2);
+                lengths = Arrays.copyOf(lengths, number * 2);
+            }
+            articleIds[number] = document.articleId();
+            lengths[number] = document.length();
+            live.set(number);
+            documentOf.put(document.articleId(), number);
+            liveDocuments++;
+            liveLength += document.length();
+            document.frequencies().forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new PostingList()).add(number, frequency));
+        }
+
+        void remove(long articleId) {
+            Integer number = documentOf.remove(articleId);
+            if (number != null) {
+                live.clear(number);
+                liveDocuments--;
+                liveLength -= lengths[number];
+            }
+        }
+    }
+}
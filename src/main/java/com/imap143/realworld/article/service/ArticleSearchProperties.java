@@ -0,0 +1,19 @@
+package com.imap143.realworld.article.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "articles.search")
+public class ArticleSearchProperties {
+    // Threads reading and tokenizing articles during a rebuild.
+    private int rebuildThreads = Runtime.getRuntime().availableProcessors();
+    // Article ids per range read by one rebuild task.
+    private int rebuildChunkSize = 10_000;
+    // Offset paging reaches this deep into the ranking.
+    private int maxResults = 1_000;
+}
@@ -1,23 +1,35 @@
 package com.imap143.realworld.article.service;
 
 import com.imap143.realworld.article.dto.ArticleUpdateRequestDTO;
+import com.imap143.realworld.article.dto.RenderedArticleResponse;
 import com.imap143.realworld.article.model.Article;
 import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleView;
+import com.imap143.realworld.article.model.ArticleViewer;
 import com.imap143.realworld.article.repository.ArticleRepository;
 import com.imap143.realworld.exception.RealWorldException;
 import com.imap143.realworld.tag.model.Tag;
 import com.imap143.realworld.tag.repository.TagRepository;
+import com.imap143.realworld.user.service.FollowGraph;
 import com.imap143.realworld.user.service.UserService;
-import com.imap143.realworld.user.model.User;
-import com.imap143.realworld.user.repository.UserRepository;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,13 +38,31 @@ public class ArticleService {
     private final UserService userService;
     private final TagRepository tagRepository;
     private final ArticleRepository articleRepository;
-    private final UserRepository userRepository;
+    private final FollowGraph followGraph;
+    private final ArticleCountCache articleCountCache;
+    private final ArticleViewCache articleViewCache;
+    private final ArticleListVersions articleListVersions;
+    private final FeedReader feedReader;
+    private final FeedFanout feedFanout;
+    private final AuthorRecentPosts authorRecentPosts;
+    private final ArticleSearch articleSearch;
 
-    public ArticleService(UserService userService, TagRepository tagRepository, ArticleRepository articleRepository, UserRepository userRepository) {
+    public ArticleService(UserService userService, TagRepository tagRepository, ArticleRepository articleRepository,
+                          FollowGraph followGraph, ArticleCountCache articleCountCache,
+                          ArticleViewCache articleViewCache, ArticleListVersions articleListVersions,
+                          FeedReader feedReader, FeedFanout feedFanout, AuthorRecentPosts authorRecentPosts,
+                          ArticleSearch articleSearch) {
         this.userService = userService;
         this.tagRepository = tagRepository;
         this.articleRepository = articleRepository;
-        this.userRepository = userRepository;
+        this.followGraph = followGraph;
+        this.articleCountCache = articleCountCache;
+        this.articleViewCache = articleViewCache;
+        this.articleListVersions = articleListVersions;
+        this.feedReader = feedReader;
+        this.feedFanout = feedFanout;
+        this.authorRecentPosts = authorRecentPosts;
+        this.articleSearch = articleSearch;
     }
 
     @Transactional
@@ -43,10 +73,16 @@ public class ArticleService {
                 .collect(Collectors.toSet());
 
         articleContent.setTags(newTags);
-        
-        return userService.findById(AuthorId)
+        articleCountCache.invalidateAll();
+
+        Article article = userService.findById(AuthorId)
                 .map(user -> articleRepository.save(new Article(user, articleContent)))
                 .orElseThrow();
+        articleListVersions.articleChanged(article, false);
+        authorRecentPosts.invalidate(AuthorId);
+        feedFanout.articleCreated(article.getId(), AuthorId);
+        articleSearch.articleSaved(article);
+        return article;
     }
 
     @Transactional(readOnly = true)
@@ -54,40 +90,98 @@ public class ArticleService {
         return articleRepository.findBySlug(slug);
     }
 
+    // A cache hit runs no query and, outside a caller's transaction, does not take a connection.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<RenderedArticleResponse> findView(String slug) {
+        return articleViewCache.get(slug, articleRepository::findViewBySlug);
+    }
+
+    // Read before the listing itself, so the version handed out never claims newer data than the page.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String listEtag(ArticleFilter filter) {
+        return articleListVersions.etag(filter);
+    }
+
     @Transactional(readOnly = true)
-    public Page<Article> findAll(Pageable pageable) {
-        return articleRepository.findAll(pageable);
+    public Page<ArticleSummary> findSummaries(ArticleFilter filter, Pageable pageable, ArticleView view) {
+        return withTotal(articleRepository.findSummaries(filter, pageable, view), filter);
     }
 
     @Transactional(readOnly = true)
-    public Page<Article> findByTag(String tag, Pageable pageable) {
-        return articleRepository.findByContent_Tags_TagName(tag, pageable);
+    public List<ArticleSummary> scrollSummaries(ArticleFilter filter, ArticleCursor cursor, int limit, ArticleView view) {
+        return articleRepository.findSummariesAfter(filter, cursor, limit, view);
     }
 
+    // Favorited and following flags for one page: an IN query for favorites and in-memory lookups for follows.
     @Transactional(readOnly = true)
-    public Page<Article> findByAuthor(String author, Pageable pageable) {
-        return articleRepository.findByAuthor_Profile_Username(author, pageable);
+    public ArticleViewer viewerOf(Long userId, List<ArticleSummary> summaries) {
+        if (userId == null || summaries.isEmpty()) {
+            return ArticleViewer.ANONYMOUS;
+        }
+        Set<Long> articleIds = summaries.stream().map(ArticleSummary::id).collect(Collectors.toSet());
+        Set<Long> authorIds = summaries.stream().map(ArticleSummary::authorId).collect(Collectors.toSet());
+        return new ArticleViewer(
+                Set.copyOf(articleRepository.findFavoritedArticleIds(userId, articleIds)),
+                followGraph.followedAmong(userId, authorIds));
     }
 
+    // Favorited and following flags for a page of loaded articles, such as search results.
     @Transactional(readOnly = true)
-    public Page<Article> findByFavorited(String username, Pageable pageable) {
-        return articleRepository.findByFavoritedBy_Profile_Username(username, pageable);
+    public ArticleViewer viewerOfArticles(Long userId, List<Article> articles) {
+        if (userId == null || articles.isEmpty()) {
+            return ArticleViewer.ANONYMOUS;
+        }
+        Set<Long> articleIds = articles.stream().map(Article::getId).collect(Collectors.toSet());
+        Set<Long> authorIds = articles.stream().map(article -> article.getAuthor().getId()).collect(Collectors.toSet());
+        return new ArticleViewer(
+                Set.copyOf(articleRepository.findFavoritedArticleIds(userId, articleIds)),
+                followGraph.followedAmong(userId, authorIds));
     }
 
+    // Every feed article comes from a followed author, so only favorites need a query.
+    @Transactional(readOnly = true)
+    public ArticleViewer feedViewerOf(long userId, List<Article> articles) {
+        if (articles.isEmpty()) {
+            return ArticleViewer.ANONYMOUS;
+        }
+        Set<Long> articleIds = articles.stream().map(Article::getId).collect(Collectors.toSet());
+        Set<Long> authorIds = articles.stream().map(article -> article.getAuthor().getId()).collect(Collectors.toSet());
+        return new ArticleViewer(Set.copyOf(articleRepository.findFavoritedArticleIds(userId, articleIds)), authorIds);
+    }
+
+    @Transactional(readOnly = true)
+    public long countArticles(ArticleFilter filter) {
+        return articleCountCache.get(filter, this::countUncached);
+    }
+
+    // The last page already tells the exact total, so only earlier pages need the cached count.
+    private <T> Page<T> withTotal(Slice<T> slice, ArticleFilter filter) {
+        long offset = slice.getPageable().getOffset();
+        boolean lastPage = !slice.hasNext() && (slice.hasContent() || offset == 0);
+        long total = lastPage ? offset + slice.getNumberOfElements() : countArticles(filter);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    private long countUncached(ArticleFilter filter) {
+        return filter.isUnfiltered() ? articleRepository.count() : articleRepository.countArticles(filter);
+    }
+
+    // One keyed insert or delete on article_favorites decides the outcome, so the cost does not
+    // depend on how many favorites the article has and concurrent clicks count only once.
     @Transactional
     public Article addFavorite(String slug, Long userId) {
         Article article = findBySlug(slug)
                 .orElseThrow(() -> new RealWorldException("Article not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RealWorldException("User not found"));
-
-        if (article.getFavoritedBy().stream().anyMatch(u -> u.getId() == (userId))) {
+        if (articleRepository.insertFavorite(article.getId(), userId) == 0) {
             throw new RealWorldException("Article is already favorited");
         }
 
-        article.addFavorite(user);
-        return articleRepository.save(article);
+        articleRepository.incrementFavoritesCount(article.getId());
+        articleCountCache.invalidateFavorited();
+        articleViewCache.invalidate(slug);
+        articleListVersions.articleChanged(article, true);
+        return article.favoriteAdded();
     }
 
     @Transactional
@@ -95,15 +189,24 @@ public class ArticleService {
         Article article = findBySlug(slug)
                 .orElseThrow(() -> new RealWorldException("Article not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RealWorldException("User not found"));
-
-        if (article.getFavoritedBy().stream().noneMatch(u -> u.getId() == (userId))) {
+        if (articleRepository.deleteFavorite(article.getId(), userId) == 0) {
             throw new RealWorldException("Article is not favorited yet");
         }
 
-        article.removeFavorite(user);
-        return articleRepository.save(article);
+        articleRepository.decrementFavoritesCount(article.getId());
+        articleCountCache.invalidateFavorited();
+        articleViewCache.invalidate(slug);
+        articleListVersions.articleChanged(article, true);
+        return article.favoriteRemoved();
+    }
+
+    @Transactional
+    public int reconcileFavoritesCounts() {
+        int reconciled = articleRepository.reconcileFavoritesCounts();
+        if (reconciled > 0) {
+            articleListVersions.allChanged();
+        }
+        return reconciled;
     }
 
     @Transactional
@@ -124,6 +227,11 @@ public class ArticleService {
                 request.getDescriptionOrNull(),
                 request.getBodyOrNull()
         );
+        // A new title also changes the slug; the old key must not keep serving the article.
+        articleViewCache.invalidate(slug);
+        articleViewCache.invalidate(article.getSlug());
+        articleListVersions.articleChanged(article, true);
+        articleSearch.articleSaved(article);
 
         return Optional.of(article);
     }
@@ -137,14 +245,44 @@ public class ArticleService {
             throw new RealWorldException("You can only delete your own articles");
         }
 
+        articleListVersions.articleChanged(article, true);
         articleRepository.delete(article);
+        articleCountCache.invalidateAll();
+        articleViewCache.invalidate(slug);
+        authorRecentPosts.invalidate(userId);
+        articleSearch.articleDeleted(article.getId());
     }
 
+    // The user's precomputed timeline, newest first, with followed celebrities merged in; the
+    // follow count plays no part in the cost.
     @Transactional(readOnly = true)
     public Page<Article> getFeed(Long userId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RealWorldException("User not found"));
+        return feedReader.page(userId, pageable);
+    }
 
-        return articleRepository.findByAuthorInOrderByCreatedAtDesc(user.getFollowing(), pageable);
+    // Ranked from the in-memory search index; one query loads the page's articles. An article
+    // deleted since it was indexed is left out of the page.
+    @Transactional(readOnly = true)
+    public Page<Article> search(String query, Pageable pageable) {
+        ArticleSearchIndex.Hits hits = articleSearch.search(query, pageable);
+        List<Long> pageIds = hits.articleIds().subList(
+                (int) Math.min(pageable.getOffset(), hits.articleIds().size()), hits.articleIds().size());
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+        Map<Long, Article> byId = articleRepository.findWithAuthorByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        List<Article> page = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(page, pageable, hits.total());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Article> scrollFeed(Long userId, ArticleCursor cursor, int limit) {
+        return feedReader.scroll(userId, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public long countFeed(Long userId) {
+        return feedReader.count(userId);
     }
 }
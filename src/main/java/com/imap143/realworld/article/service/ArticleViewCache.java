@@ -0,0 +1,74 @@
+package com.imap143.realworld.article.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imap143.realworld.article.dto.RenderedArticleResponse;
+import com.imap143.realworld.article.dto.SingleArticleResponseDTO;
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.user.service.ProfileChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+// Rendered single-article responses by slug. Caffeine's W-TinyLFU policy only admits a new slug
+// over the eviction candidate when it has been requested more often, so a burst of one-off
+// lookups cannot push the hot articles out. Missing slugs are not cached.
+@Component
+public class ArticleViewCache implements MeterBinder {
+
+    private record Entry(long authorId, RenderedArticleResponse view) {
+    }
+
+    private final Cache<String, Entry> cache;
+    private final ObjectMapper objectMapper;
+
+    public ArticleViewCache(ArticleViewCacheProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<RenderedArticleResponse> get(String slug, Function<String, Optional<Article>> loader) {
+        Entry entry = cache.get(slug, key -> loader.apply(key)
+                .map(article -> new Entry(article.getAuthor().getId(), RenderedArticleResponse.render(
+                        new SingleArticleResponseDTO(article, article.getAuthor().getProfile()), objectMapper)))
+                .orElse(null));
+        return Optional.ofNullable(entry).map(Entry::view);
+    }
+
+    // Dropped again once the transaction ends, so a view loaded from the uncommitted state, or
+    // from a write that then rolled back, does not stay cached.
+    public void invalidate(String slug) {
+        cache.invalidate(slug);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(slug);
+                }
+            });
+        }
+    }
+
+    // Views embed the author's profile; scanning is fine since profile changes are rare.
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProfileChanged(ProfileChangedEvent event) {
+        cache.asMap().values().removeIf(entry -> entry.authorId() == event.userId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "articles.views");
+    }
+}
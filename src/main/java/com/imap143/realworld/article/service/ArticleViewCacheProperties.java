@@ -0,0 +1,18 @@
+package com.imap143.realworld.article.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "articles.view-cache")
+public class ArticleViewCacheProperties {
+    private long maximumSize = 10_000;
+    // Upper bound on staleness, e.g. for writes made on another node.
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,52 @@
+package com.imap143.realworld.article.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imap143.realworld.article.model.FeedItem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.LongFunction;
+
+// Newest articles per celebrity author, newest first. Every follower's feed read merges the same
+// few lists, so they are loaded once instead of once per reader.
+@Component
+public class AuthorRecentPosts implements MeterBinder {
+
+    private final Cache<Long, List<FeedItem>> cache;
+
+    public AuthorRecentPosts(FeedTimelineProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCelebrityCacheSize())
+                .expireAfterWrite(properties.getCelebrityCacheTtl())
+                .recordStats()
+                .build();
+    }
+
+    public List<FeedItem> get(long authorId, LongFunction<List<FeedItem>> loader) {
+        return cache.get(authorId, loader::apply);
+    }
+
+    // Dropped again once the transaction ends, so a list read before the commit does not stay cached.
+    public void invalidate(long authorId) {
+        cache.invalidate(authorId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(authorId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "articles.feed.author-posts");
+    }
+}
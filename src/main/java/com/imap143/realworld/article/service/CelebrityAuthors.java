@@ -0,0 +1,57 @@
+package com.imap143.realworld.article.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Authors with at least articles.feed.celebrity-follower-threshold followers. Their articles are
+// not copied into timelines; FeedReader merges them into each follower's feed at read time.
+// The set is recomputed by FeedTimelines.refreshCelebrities and read without locking.
+@Slf4j
+@Component
+public class CelebrityAuthors implements MeterBinder {
+
+    private final FeedTimelineProperties properties;
+    private volatile Set<Long> ids = Set.of();
+
+    public CelebrityAuthors(FeedTimelineProperties properties) {
+        this.properties = properties;
+    }
+
+    public Set<Long> ids() {
+        return ids;
+    }
+
+    public boolean contains(long authorId) {
+        return ids.contains(authorId);
+    }
+
+    // Returns the authors that are no longer celebrities, whose timelines need filling again.
+    Set<Long> replace(Set<Long> current) {
+        Set<Long> previous = ids;
+        ids = Set.copyOf(current);
+
+        Set<Long> demoted = new HashSet<>(previous);
+        demoted.removeAll(ids);
+        if (!demoted.isEmpty() || ids.size() != previous.size()) {
+            log.info("{} celebrity authors at threshold {}, {} demoted",
+                    ids.size(), properties.getCelebrityFollowerThreshold(), demoted.size());
+        }
+        return demoted;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("articles.feed.celebrity.threshold", properties, FeedTimelineProperties::getCelebrityFollowerThreshold)
+                .description("Follower count from which an author's articles are merged at read time")
+                .register(registry);
+        Gauge.builder("articles.feed.celebrities", this, authors -> authors.ids().size())
+                .description("Authors currently delivered by fan-out-on-read")
+                .register(registry);
+    }
+}
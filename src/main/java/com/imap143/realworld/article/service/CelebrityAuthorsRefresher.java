@@ -0,0 +1,18 @@
+package com.imap143.realworld.article.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CelebrityAuthorsRefresher {
+
+    private final FeedTimelines feedTimelines;
+
+    // Runs once right after startup, then follower counts are re-read periodically.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${articles.feed.celebrity-refresh-interval:PT5M}")
+    public void refresh() {
+        feedTimelines.refreshCelebrities();
+    }
+}
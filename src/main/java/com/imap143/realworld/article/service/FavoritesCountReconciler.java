@@ -0,0 +1,22 @@
+package com.imap143.realworld.article.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FavoritesCountReconciler {
+
+    private final ArticleService articleService;
+
+    @Scheduled(cron = "${articles.favorites-count-reconcile-cron:-}")
+    public void reconcile() {
+        int corrected = articleService.reconcileFavoritesCounts();
+        if (corrected > 0) {
+            log.warn("Corrected favorites_count of {} articles", corrected);
+        }
+    }
+}
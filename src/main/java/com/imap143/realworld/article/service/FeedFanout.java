@@ -0,0 +1,94 @@
+package com.imap143.realworld.article.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Copies new articles into their followers' timelines off the request thread, so publishing costs
+// the author the same whether they have ten followers or ten thousand. When the queue is full the
+// committing thread does the work itself rather than dropping it. The queue lives only in memory:
+// shutdown waits a while for it to drain, and whatever a crash, a deploy or a failure leaves
+// undone is fanned out later by FeedFanoutRepairer.
+@Slf4j
+@Component
+public class FeedFanout {
+
+    private final FeedTimelines feedTimelines;
+    private final Duration shutdownTimeout;
+    private final ThreadPoolExecutor executor;
+
+    public FeedFanout(FeedTimelines feedTimelines, FeedTimelineProperties properties) {
+        this.feedTimelines = feedTimelines;
+        this.shutdownTimeout = properties.getFanoutShutdownTimeout();
+        if (properties.getFanoutPoolSize() <= 0) {
+            this.executor = null;
+            return;
+        }
+        this.executor = new ThreadPoolExecutor(
+                properties.getFanoutPoolSize(),
+                properties.getFanoutPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getFanoutQueueCapacity()),
+                new CustomizableThreadFactory("feed-fanout-"),
+                FeedFanout::rejected);
+    }
+
+    private static void rejected(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            log.info("Fan-out pool is shut down; the article is left to the repair sweep");
+            return;
+        }
+        task.run();
+    }
+
+    // Followers must not see an article that then rolls back, so the copy waits for the commit.
+    public void articleCreated(long articleId, long authorId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(articleId, authorId);
+                }
+            });
+        } else {
+            submit(articleId, authorId);
+        }
+    }
+
+    private void submit(long articleId, long authorId) {
+        if (executor == null) {
+            fanOut(articleId, authorId);
+        } else {
+            executor.execute(() -> fanOut(articleId, authorId));
+        }
+    }
+
+    private void fanOut(long articleId, long authorId) {
+        try {
+            int rows = feedTimelines.fanOut(articleId, authorId);
+            log.debug("Fanned out article {} to {} timelines", articleId, rows);
+        } catch (RuntimeException e) {
+            log.warn("Fan-out of article {} failed; the repair sweep retries it", articleId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Stopped with {} fan-outs still queued; the repair sweep picks them up after restart",
+                    executor.getQueue().size());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.imap143.realworld.article.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedFanoutRepairer {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final FeedTimelines feedTimelines;
+    private final FeedTimelineProperties properties;
+
+    // Runs once right after startup for what the previous process left queued, then periodically
+    // for fan-outs that failed. Each batch commits on its own.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${articles.feed.fanout-repair-interval:PT5M}")
+    public void repair() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getFanoutRepairDelay());
+        int repaired = 0;
+        int batch;
+        do {
+            batch = feedTimelines.repairFanOuts(before, BATCH_SIZE);
+            repaired += batch;
+        } while (batch == BATCH_SIZE);
+        if (repaired > 0) {
+            log.info("Fanned out {} articles left over from earlier fan-outs", repaired);
+        }
+    }
+}
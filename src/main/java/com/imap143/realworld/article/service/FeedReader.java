@@ -0,0 +1,211 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.FeedItem;
+import com.imap143.realworld.article.repository.ArticleRepository;
+import com.imap143.realworld.article.repository.FeedRepository;
+import com.imap143.realworld.article.repository.OffsetPageRequest;
+import com.imap143.realworld.user.service.FollowGraph;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Builds a feed from the reader's timeline plus, for followed CelebrityAuthors, their recent
+// articles merged at read time. A reader following no celebrity gets the plain timeline query,
+// and one without a timeline at all gets the follow-graph query.
+//
+// A timeline is not a newest-first prefix of the followed articles: backfills copy only each
+// author's newest ones, and trimming cuts the oldest. FeedRepository reads it only down to its
+// FeedHorizon, and past the end of what it returns both paging modes read every older position
+// from the follow graph. Celebrity articles older than that end would pass over the gap after
+// it, so a timeline that runs out also ends the merge.
+@Component
+public class FeedReader {
+
+    private final FeedRepository feedRepository;
+    private final ArticleRepository articleRepository;
+    private final FollowGraph followGraph;
+    private final CelebrityAuthors celebrityAuthors;
+    private final AuthorRecentPosts authorRecentPosts;
+    private final FeedTotals feedTotals;
+    private final FeedTimelineProperties properties;
+
+    public FeedReader(FeedRepository feedRepository, ArticleRepository articleRepository, FollowGraph followGraph,
+                      CelebrityAuthors celebrityAuthors, AuthorRecentPosts authorRecentPosts,
+                      FeedTotals feedTotals, FeedTimelineProperties properties) {
+        this.feedRepository = feedRepository;
+        this.articleRepository = articleRepository;
+        this.followGraph = followGraph;
+        this.celebrityAuthors = celebrityAuthors;
+        this.authorRecentPosts = authorRecentPosts;
+        this.feedTotals = feedTotals;
+        this.properties = properties;
+    }
+
+    public Page<Article> page(long userId, Pageable pageable) {
+        List<Long> celebrities = followedCelebrities(userId);
+        if (celebrities.isEmpty()) {
+            List<Article> timeline = feedRepository.findTimeline(userId, pageable);
+            List<Article> content = timeline.size() < pageable.getPageSize()
+                    ? continueFromFollows(userId, timeline, pageable)
+                    : timeline;
+            return new PageImpl<>(content, pageable, total(userId, pageable, content));
+        }
+        // Merging reaches at most as deep as a timeline keeps; the follow graph covers the rest.
+        int wanted = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), properties.getMaxEntriesPerUser());
+        List<FeedItem> timeline = feedRepository.findTimelineItemsAfter(userId, ArticleCursor.FIRST.createdAt(),
+                ArticleCursor.FIRST.id(), Limit.of(wanted));
+        List<FeedItem> merged = merge(timeline, celebrities, ArticleCursor.FIRST, wanted);
+        List<Article> head = load(merged.subList((int) Math.min(pageable.getOffset(), merged.size()), merged.size()));
+        List<Article> content = head;
+        if (head.size() < pageable.getPageSize()) {
+            ArticleCursor end = merged.isEmpty() ? ArticleCursor.FIRST : ArticleCursor.after(merged.get(merged.size() - 1));
+            content = continueFromFollows(userId, head, end, Math.max(0, pageable.getOffset() - merged.size()),
+                    pageable.getPageSize());
+        }
+        return new PageImpl<>(content, pageable, total(userId, pageable, content));
+    }
+
+    public List<Article> scroll(long userId, ArticleCursor cursor, int limit) {
+        List<Long> celebrities = followedCelebrities(userId);
+        List<Article> feed;
+        if (celebrities.isEmpty()) {
+            feed = feedRepository.findTimelineAfter(userId, cursor.createdAt(), cursor.id(), Limit.of(limit));
+        } else {
+            List<FeedItem> timeline = feedRepository.findTimelineItemsAfter(userId, cursor.createdAt(), cursor.id(), Limit.of(limit));
+            feed = load(merge(timeline, celebrities, cursor, limit));
+        }
+        if (feed.size() == limit) {
+            return feed;
+        }
+        ArticleCursor position = feed.isEmpty() ? cursor : ArticleCursor.after(feed.get(feed.size() - 1));
+        return continueFromFollows(userId, feed, position, 0, limit);
+    }
+
+    // An offset page that runs past the end of the timeline. A page holding part of it continues
+    // right after its last entry; one starting further down skips what the timeline already
+    // covered, counted from the oldest entry.
+    private List<Article> continueFromFollows(long userId, List<Article> timeline, Pageable pageable) {
+        if (!timeline.isEmpty() || pageable.getOffset() == 0) {
+            ArticleCursor position = timeline.isEmpty()
+                    ? ArticleCursor.FIRST
+                    : ArticleCursor.after(timeline.get(timeline.size() - 1));
+            return continueFromFollows(userId, timeline, position, 0, pageable.getPageSize());
+        }
+        long covered = feedRepository.countTimeline(userId);
+        ArticleCursor position = feedRepository.findTimelineEnd(userId, Limit.of(1)).stream()
+                .findFirst()
+                .map(ArticleCursor::after)
+                .orElse(ArticleCursor.FIRST);
+        return continueFromFollows(userId, timeline, position, Math.max(0, pageable.getOffset() - covered),
+                pageable.getPageSize());
+    }
+
+    // Past what the timeline can be trusted for (its horizon, its end, or no timeline at all for
+    // follows older than user_feed) the feed carries on from the articles of followed authors,
+    // strictly after the given position.
+    private List<Article> continueFromFollows(long userId, List<Article> feed, ArticleCursor position, long skip,
+                                              int limit) {
+        List<Article> continued = new ArrayList<>(feed);
+        continued.addAll(articleRepository.findFollowedByAfter(userId, position.createdAt(), position.id(),
+                new OffsetPageRequest(skip, limit - feed.size())));
+        return continued;
+    }
+
+    // Every article of the authors the user follows, each counted once whichever source serves it.
+    public long count(long userId) {
+        return feedTotals.get(userId, articleRepository::countFollowedBy);
+    }
+
+    // The last page already tells the exact total, so only earlier pages need the cached count.
+    private long total(long userId, Pageable pageable, List<Article> content) {
+        if (content.size() < pageable.getPageSize() && (!content.isEmpty() || pageable.getOffset() == 0)) {
+            return pageable.getOffset() + content.size();
+        }
+        return count(userId);
+    }
+
+    private List<Long> followedCelebrities(long userId) {
+        Set<Long> celebrities = celebrityAuthors.ids();
+        return celebrities.isEmpty() ? List.of() : List.copyOf(followGraph.followedAmong(userId, celebrities));
+    }
+
+    private List<FeedItem> merge(List<FeedItem> timeline, List<Long> celebrities, ArticleCursor cursor, int limit) {
+        List<List<FeedItem>> sources = new ArrayList<>();
+        sources.add(timeline);
+        for (long authorId : celebrities) {
+            sources.add(recentPosts(authorId, cursor, limit));
+        }
+        List<FeedItem> merged = merge(sources, limit);
+        if (timeline.size() == limit) {
+            return merged;
+        }
+        ArticleCursor end = timeline.isEmpty() ? cursor : ArticleCursor.after(timeline.get(timeline.size() - 1));
+        return merged.stream().takeWhile(item -> !item.isAfter(end)).toList();
+    }
+
+    // Served from the cached list while it reaches far enough back; a cursor past its end, on an
+    // author with more articles than the list holds, reads the author index instead.
+    private List<FeedItem> recentPosts(long authorId, ArticleCursor cursor, int limit) {
+        int length = properties.getCelebrityRecentPosts();
+        List<FeedItem> recent = authorRecentPosts.get(authorId, id -> articleRepository.findFeedItemsByAuthorAfter(
+                id, ArticleCursor.FIRST.createdAt(), ArticleCursor.FIRST.id(), Limit.of(length)));
+        List<FeedItem> after = recent.stream().filter(item -> item.isAfter(cursor)).limit(limit).toList();
+        if (after.size() == limit || recent.size() < length) {
+            return after;
+        }
+        return articleRepository.findFeedItemsByAuthorAfter(authorId, cursor.createdAt(), cursor.id(), Limit.of(limit));
+    }
+
+    // k-way merge of newest-first sources: a heap holds the head of each source, so producing
+    // the first limit items costs O(limit log k) however long the sources are. An article can
+    // sit in both the timeline and a celebrity's list around a threshold change; the copies are
+    // adjacent in merge order and only the first is kept.
+    static List<FeedItem> merge(List<List<FeedItem>> sources, int limit) {
+        record Head(FeedItem item, Iterator<FeedItem> rest) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (left, right) -> FeedItem.NEWEST_FIRST.compare(left.item(), right.item()));
+        for (List<FeedItem> source : sources) {
+            Iterator<FeedItem> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+
+        List<FeedItem> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            if (merged.isEmpty() || merged.get(merged.size() - 1).articleId() != head.item().articleId()) {
+                merged.add(head.item());
+            }
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    private List<Article> load(List<FeedItem> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Article> byId = articleRepository.findWithAuthorByIdIn(items.stream().map(FeedItem::articleId).toList())
+                .stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        return items.stream().map(item -> byId.get(item.articleId())).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.imap143.realworld.article.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "articles.feed")
+public class FeedTimelineProperties {
+    // Entries kept per timeline by the trim job; also the most a follow backfills.
+    private int maxEntriesPerUser = 1000;
+    // Threads copying new articles into timelines. 0 runs the fan-out on the committing thread.
+    private int fanoutPoolSize = 2;
+    private int fanoutQueueCapacity = 10_000;
+    // How long shutdown waits for queued fan-outs before leaving them to the repair sweep.
+    private Duration fanoutShutdownTimeout = Duration.ofSeconds(30);
+    // The repair sweep fans out articles still not fanned out this long after they were created.
+    private Duration fanoutRepairDelay = Duration.ofMinutes(1);
+    // Authors with at least this many followers are merged at read time instead; 0 fans out everyone.
+    private int celebrityFollowerThreshold = 10_000;
+    // Length of the cached newest-first list per celebrity; older pages query the articles table.
+    private int celebrityRecentPosts = 100;
+    private long celebrityCacheSize = 1_000;
+    private Duration celebrityCacheTtl = Duration.ofMinutes(1);
+    // Cached feed totals per reader; they lag new and deleted articles by up to the TTL.
+    private long totalCacheSize = 10_000;
+    private Duration totalCacheTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,22 @@
+package com.imap143.realworld.article.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedTimelineTrimmer {
+
+    private final FeedTimelines feedTimelines;
+
+    @Scheduled(cron = "${articles.feed.trim-cron:-}")
+    public void trim() {
+        int removed = feedTimelines.trim();
+        if (removed > 0) {
+            log.info("Trimmed {} feed entries", removed);
+        }
+    }
+}
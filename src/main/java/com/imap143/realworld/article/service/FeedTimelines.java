@@ -0,0 +1,104 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.FeedItem;
+import com.imap143.realworld.article.repository.ArticleRepository;
+import com.imap143.realworld.article.repository.FeedRepository;
+import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.user.service.FollowChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// Keeps user_feed in step with articles and follows. New articles arrive through FeedFanout;
+// deleted articles leave every timeline through the fk_user_feed_article cascade. Articles of
+// CelebrityAuthors are left out and merged at read time by FeedReader. Backfills copy only an
+// author's newest articles, so each one that leaves some out also records a FeedHorizon.
+@Service
+@Transactional
+public class FeedTimelines {
+
+    private final FeedRepository feedRepository;
+    private final ArticleRepository articleRepository;
+    private final UserRepository userRepository;
+    private final CelebrityAuthors celebrityAuthors;
+    private final FeedTimelineProperties properties;
+
+    public FeedTimelines(FeedRepository feedRepository, ArticleRepository articleRepository,
+                         UserRepository userRepository, CelebrityAuthors celebrityAuthors,
+                         FeedTimelineProperties properties) {
+        this.feedRepository = feedRepository;
+        this.articleRepository = articleRepository;
+        this.userRepository = userRepository;
+        this.celebrityAuthors = celebrityAuthors;
+        this.properties = properties;
+    }
+
+    // Called once the creating transaction has committed, which cannot be joined any more. The
+    // article is marked in the same transaction, so it is marked exactly when its rows are in.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int fanOut(long articleId, long authorId) {
+        articleRepository.markFannedOut(articleId);
+        if (celebrityAuthors.contains(authorId)) {
+            return 0;
+        }
+        return feedRepository.fanOut(articleId);
+    }
+
+    // Fans out articles FeedFanout never finished: its queue does not survive a crash or deploy,
+    // and a failed fan-out is not retried. Articles created after `before` may still be queued.
+    public int repairFanOuts(LocalDateTime before, int limit) {
+        List<Article> pending = articleRepository.findNotFannedOut(before, Limit.of(limit));
+        pending.forEach(article -> fanOut(article.getId(), article.getAuthor().getId()));
+        return pending.size();
+    }
+
+    // Runs inside the follow transaction, so the timeline changes commit or roll back with the follow.
+    @EventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (!event.following()) {
+            feedRepository.prune(event.followerId(), event.followedId());
+        } else if (!celebrityAuthors.contains(event.followedId())) {
+            int limit = properties.getMaxEntriesPerUser();
+            feedRepository.backfill(event.followerId(), event.followedId(), limit);
+            for (FeedItem omitted : firstOmitted(event.followedId(), limit)) {
+                feedRepository.insertHorizon(event.followerId(), omitted.createdAt(), omitted.articleId());
+                feedRepository.raiseHorizon(event.followerId(), omitted.createdAt(), omitted.articleId());
+            }
+        }
+    }
+
+    // Authors who crossed the threshold upwards just stop being fanned out; the rows they already
+    // have are merged without duplicates and age out with trimming. Authors who dropped below it
+    // get their recent articles copied back, since nothing merges them any more.
+    public void refreshCelebrities() {
+        int threshold = properties.getCelebrityFollowerThreshold();
+        Set<Long> current = threshold > 0 ? Set.copyOf(userRepository.findIdsWithFollowersAtLeast(threshold)) : Set.of();
+        for (long authorId : celebrityAuthors.replace(current)) {
+            int limit = properties.getCelebrityRecentPosts();
+            feedRepository.backfillFollowers(authorId, limit);
+            for (FeedItem omitted : firstOmitted(authorId, limit)) {
+                feedRepository.insertFollowerHorizons(authorId, omitted.createdAt(), omitted.articleId());
+                feedRepository.raiseFollowerHorizons(authorId, omitted.createdAt(), omitted.articleId());
+            }
+        }
+    }
+
+    public int trim() {
+        int trimmed = feedRepository.trim(properties.getMaxEntriesPerUser());
+        feedRepository.deletePassedHorizons();
+        return trimmed;
+    }
+
+    // The newest of the author's articles a backfill of limit leaves out; none when it copies them all.
+    private List<FeedItem> firstOmitted(long authorId, int limit) {
+        return articleRepository.findFeedItemsByAuthor(authorId, PageRequest.of(limit, 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.imap143.realworld.article.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.imap143.realworld.user.service.FollowChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongUnaryOperator;
+
+// Number of articles in each reader's feed. Counting them walks every followed author's articles,
+// so scrolling reads it from here instead of once per page. A follow change drops the reader's
+// entry; new and deleted articles show up once it expires, up to articles.feed.total-cache-ttl later.
+@Component
+public class FeedTotals implements MeterBinder {
+
+    private final Cache<Long, Long> cache;
+
+    public FeedTotals(FeedTimelineProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getTotalCacheSize())
+                .expireAfterWrite(properties.getTotalCacheTtl())
+                .recordStats()
+                .build();
+    }
+
+    public long get(long userId, LongUnaryOperator loader) {
+        return cache.get(userId, loader::applyAsLong);
+    }
+
+    // Dropped again once the transaction ends, so a total read before the commit does not stay cached.
+    @EventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        long followerId = event.followerId();
+        cache.invalidate(followerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(followerId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "articles.feed.totals");
+    }
+}
@@ -0,0 +1,91 @@
+package com.imap143.realworld.article.service;
+
+import java.util.Arrays;
+
+// The documents one term occurs in, ascending, each with the term's weighted frequency. Stored
+// as variable-length byte pairs: the gap to the previous document, then the frequency. Gaps
+// between nearby documents and small frequencies take one byte each, against eight for an int
+// pair. Documents are only ever appended in increasing order, which keeps every gap positive.
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int size;
+    private int lastDocument = -1;
+
+    void add(int document, int frequency) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("Document " + document + " is not after " + lastDocument);
+        }
+        if (bytes.length - length < 10) {
+            bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+        writeVarInt(document - lastDocument);
+        writeVarInt(frequency);
+        lastDocument = document;
+        size++;
+    }
+
+    // Entries ever added, including those of documents removed since.
+    int size() {
+        return size;
+    }
+
+    int bytes() {
+        return bytes.length;
+    }
+
+    Cursor cursor() {
+        return new Cursor(bytes, length);
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    // Reads the list as it was when the cursor was taken; later appends are not seen.
+    static final class Cursor {
+        private final byte[] bytes;
+        private final int length;
+        private int position;
+        private int document = -1;
+        private int frequency;
+
+        private Cursor(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        boolean next() {
+            if (position == length) {
+                return false;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        int document() {
+            return document;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.imap143.realworld.exception;
+
+public class ServiceUnavailableException extends RealWorldException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.imap143.realworld.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends RealWorldException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
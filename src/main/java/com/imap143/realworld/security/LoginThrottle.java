@@ -0,0 +1,117 @@
+package com.imap143.realworld.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.imap143.realworld.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Rejects login attempts before any password hashing once an email or a client address
+// runs out of attempts. Each key is a lock-free token bucket; idle keys are evicted.
+@Component
+public class LoginThrottle implements MeterBinder {
+
+    private static final String MESSAGE = "Too many login attempts, please try again later";
+
+    private final Ticker ticker;
+    private final Limiter emailLimiter;
+    private final Limiter addressLimiter;
+
+    @Autowired
+    public LoginThrottle(LoginThrottlingProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    LoginThrottle(LoginThrottlingProperties properties, Ticker ticker) {
+        this.ticker = ticker;
+        this.emailLimiter = new Limiter(properties.getEmailBurst(), properties.getEmailInterval(),
+                properties.getMaxTrackedKeys(), ticker);
+        this.addressLimiter = new Limiter(properties.getAddressBurst(), properties.getAddressInterval(),
+                properties.getMaxTrackedKeys(), ticker);
+    }
+
+    public void checkAttempt(String email, String clientAddress) {
+        long now = ticker.read();
+        long waitNanos = addressLimiter.tryAcquire(clientAddress, now);
+        if (waitNanos == 0) {
+            waitNanos = emailLimiter.tryAcquire(email.toLowerCase(Locale.ROOT), now);
+        }
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException(MESSAGE, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos)));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        emailLimiter.bindTo(registry, "email");
+        addressLimiter.bindTo(registry, "address");
+    }
+
+    private static class Limiter {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final Cache<String, Bucket> buckets;
+        private final LongAdder rejections = new LongAdder();
+
+        Limiter(int burst, Duration interval, long maxTrackedKeys, Ticker ticker) {
+            this.intervalNanos = interval.toNanos();
+            this.burstNanos = intervalNanos * burst;
+            // A bucket idle for a full burst is full again, so forgetting it changes nothing.
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxTrackedKeys)
+                    .expireAfterAccess(Duration.ofNanos(burstNanos))
+                    .ticker(ticker)
+                    .build();
+        }
+
+        // Returns 0 when the attempt is allowed, otherwise the nanoseconds until the next one would be.
+        long tryAcquire(String key, long now) {
+            long waitNanos = buckets.get(key, ignored -> new Bucket()).tryAcquire(now, intervalNanos, burstNanos);
+            if (waitNanos > 0) {
+                rejections.increment();
+            }
+            return waitNanos;
+        }
+
+        void bindTo(MeterRegistry registry, String keyType) {
+            FunctionCounter.builder("login.throttle.rejections", rejections, LongAdder::sum)
+                    .description("Login attempts rejected before password verification")
+                    .tag("key", keyType)
+                    .register(registry);
+            Gauge.builder("login.throttle.tracked.keys", buckets, Cache::estimatedSize)
+                    .tag("key", keyType)
+                    .register(registry);
+        }
+    }
+
+    // GCRA form of a token bucket: a single timestamp of when the bucket will be full again.
+    private static class Bucket {
+
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        long tryAcquire(long now, long intervalNanos, long burstNanos) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                if (next - now > burstNanos) {
+                    return next - now - burstNanos;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.imap143.realworld.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "login-throttling")
+public class LoginThrottlingProperties {
+    // Attempts allowed in a burst, then one more per interval.
+    private int emailBurst = 5;
+    private Duration emailInterval = Duration.ofSeconds(12);
+    private int addressBurst = 20;
+    private Duration addressInterval = Duration.ofSeconds(3);
+    // Upper bound on tracked emails and on tracked addresses.
+    private long maxTrackedKeys = 100_000;
+}
@@ -0,0 +1,63 @@
+package com.imap143.realworld.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    static final String BCRYPT_ID = "bcrypt";
+    static final String PBKDF2_ID = "pbkdf2@SpringSecurity_v5_8";
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    // New hashes are stored as {bcrypt}<hash>; hashes written before the prefix existed are matched as plain BCrypt.
+    // Only a hash with a lower cost than this node's is upgraded, so nodes calibrated to different
+    // costs never rehash the same user back and forth.
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        int strength = properties.getStrength() > 0
+                ? properties.getStrength()
+                : calibrateStrength(properties.getTargetHashMillis(), properties.getMinStrength(), properties.getMaxStrength());
+        log.info("Using BCrypt strength {}", strength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT_ID, new BCryptPasswordEncoder(strength));
+        encoders.put(PBKDF2_ID, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
+    }
+
+    // Each strength step doubles the work, so stop once the next step would exceed the target.
+    static int calibrateStrength(long targetHashMillis, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long elapsedMillis = measureHashMillis(strength);
+        while (strength < maxStrength && elapsedMillis * 2 <= targetHashMillis) {
+            strength++;
+            elapsedMillis = measureHashMillis(strength);
+        }
+        return strength;
+    }
+
+    private static long measureHashMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            fastest = Math.min(fastest, (System.nanoTime() - start) / 1_000_000);
+        }
+        return fastest;
+    }
+}
@@ -0,0 +1,22 @@
+package com.imap143.realworld.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+    // 0 runs hashing on the calling thread instead of the dedicated pool.
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 100;
+    // BCrypt cost is calibrated at startup to the highest strength whose hash stays within this budget.
+    private long targetHashMillis = 250;
+    private int minStrength = 10;
+    private int maxStrength = 16;
+    // A fixed strength skips calibration, e.g. to give nodes of different sizes the same cost.
+    private int strength = 0;
+}
@@ -0,0 +1,39 @@
+package com.imap143.realworld.security.jwt;
+
+import com.imap143.realworld.security.CustomUserDetails;
+import com.imap143.realworld.user.model.User;
+import lombok.Getter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+// Authentication built from a verified token; keeps the token and its lifetime so it can be handed back as is.
+@Getter
+public class JwtAuthentication extends UsernamePasswordAuthenticationToken {
+
+    private final String token;
+    private final long tokenVersion;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public JwtAuthentication(CustomUserDetails userDetails, String token, long tokenVersion,
+                             long issuedAtMillis, long expiresAtMillis) {
+        super(userDetails, "", userDetails.getAuthorities());
+        this.token = token;
+        this.tokenVersion = tokenVersion;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    // The token only describes the user while every claim it carries is still current.
+    public boolean isIssuedFor(User user) {
+        CustomUserDetails userDetails = (CustomUserDetails) getPrincipal();
+        return userDetails.getId() == user.getId()
+                && userDetails.getEmail().equals(user.getEmail())
+                && userDetails.getRealUsername().equals(user.getUsername())
+                && tokenVersion == user.getTokenVersion();
+    }
+
+    public double remainingLifetimeShare(long nowMillis) {
+        long lifetime = expiresAtMillis - issuedAtMillis;
+        return lifetime <= 0 ? 0 : (double) (expiresAtMillis - nowMillis) / lifetime;
+    }
+}
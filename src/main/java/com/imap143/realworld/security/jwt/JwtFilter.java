@@ -12,6 +12,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -21,13 +22,14 @@ public class JwtFilter extends OncePerRequestFilter {
     public static final String TOKEN_PREFIX = "Token ";
     private final JwtProvider jwtProvider;
 
+    // GET /articles and /articles/search are public but still read a token when one is sent, to
+    // personalize the list.
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
         String method = request.getMethod();
         return method.equals("GET") &&
-                (path.startsWith("/articles/") ||
-                        path.equals("/articles") ||
+                ((path.startsWith("/articles/") && !path.equals("/articles/search")) ||
                         path.startsWith("/profiles/") ||
                         path.startsWith("/tags/"));
     }
@@ -39,13 +41,13 @@ public class JwtFilter extends OncePerRequestFilter {
         String jwt = resolveToken(request);
         log.info("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
-        if (StringUtils.hasText(jwt) && jwtProvider.validateToken(jwt)) {
-            try {
-                Authentication authentication = jwtProvider.getAuthentication(jwt);
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(jwt)) {
+            Optional<Authentication> authentication = jwtProvider.authenticate(jwt);
+            if (authentication.isPresent()) {
+                SecurityContextHolder.getContext().setAuthentication(authentication.get());
                 log.info("Authentication successful");
-            } catch (Exception e) {
-                log.error("Authentication failed: {}", e.getMessage());
+            } else {
+                log.info("Authentication failed: invalid, expired or revoked token");
             }
         }
 
@@ -0,0 +1,35 @@
+package com.imap143.realworld.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Shows the key ring and reloads it from jwt.key-file now instead of at the next scheduled
+// reload. Keys are only ever changed in the shared file, so no secret passes through here. Like
+// every actuator endpoint except health it is not exposed until
+// management.endpoints.*.exposure.include names it.
+@Component
+@Endpoint(id = "jwtkeys")
+@RequiredArgsConstructor
+public class JwtKeyEndpoint {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    @ReadOperation
+    public KeyRingDescriptor keys() {
+        return new KeyRingDescriptor(jwtKeyRing.currentKeyId(), jwtKeyRing.keyIds());
+    }
+
+    @WriteOperation
+    public KeyRingDescriptor reload() {
+        jwtKeyRing.reload();
+        return keys();
+    }
+
+    public record KeyRingDescriptor(String currentKeyId, Set<String> keyIds) {
+    }
+}
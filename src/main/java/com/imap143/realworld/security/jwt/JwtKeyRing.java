@@ -0,0 +1,149 @@
+package com.imap143.realworld.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+// Signing keys by key id. New tokens are signed with the current key and carry its id in the
+// kid header; verification picks the key by that id with a single map lookup. Tokens issued
+// before key ids existed have no kid and resolve to jwt.key-id.
+//
+// Every node must hold the same keys, so they come from shared configuration. Without
+// jwt.key-file the ring is jwt.secret-key under jwt.key-id plus jwt.verification-keys. With it,
+// the file is the whole ring and every node re-reads it on a fixed delay:
+//
+//   current=2024-06
+//   key.2024-06=<secret>
+//   key.default=<secret>
+//
+// To rotate, first add the new key, then once every node has reloaded switch current to it;
+// otherwise nodes still on the old file reject the new tokens until their next reload. Removing
+// a key retires it, and tokens signed with it stop verifying, including cached verifications.
+@Slf4j
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    static final String CURRENT_PROPERTY = "current";
+    static final String KEY_PREFIX = "key.";
+
+    private final JwtProperties jwtProperties;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final String defaultKeyId;
+    private volatile Ring ring;
+
+    public JwtKeyRing(JwtProperties jwtProperties, VerifiedTokenCache verifiedTokenCache) {
+        this.jwtProperties = jwtProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.defaultKeyId = jwtProperties.getKeyId();
+        if (hasKeyFile()) {
+            try {
+                this.ring = readKeyFile();
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IllegalStateException("Cannot load JWT keys from " + jwtProperties.getKeyFile(), e);
+            }
+        } else {
+            Map<String, Key> keys = new HashMap<>();
+            jwtProperties.getVerificationKeys().forEach((keyId, secret) -> keys.put(keyId, deriveKey(secret)));
+            keys.put(defaultKeyId, deriveKey(jwtProperties.getSecretKey()));
+            this.ring = new Ring(Map.copyOf(keys), defaultKeyId);
+        }
+    }
+
+    public SigningKey current() {
+        Ring current = ring;
+        return new SigningKey(current.currentKeyId(), current.keys().get(current.currentKeyId()));
+    }
+
+    public String currentKeyId() {
+        return ring.currentKeyId();
+    }
+
+    public Set<String> keyIds() {
+        return ring.keys().keySet();
+    }
+
+    // A file that cannot be read or names a missing current key leaves the ring as it was.
+    @Scheduled(initialDelayString = "${jwt.key-reload-interval:PT30S}", fixedDelayString = "${jwt.key-reload-interval:PT30S}")
+    public synchronized void reload() {
+        if (!hasKeyFile()) {
+            return;
+        }
+        Ring reloaded;
+        try {
+            reloaded = readKeyFile();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not reload JWT keys from {}, keeping the current ones", jwtProperties.getKeyFile(), e);
+            return;
+        }
+        Ring previous = ring;
+        ring = reloaded;
+        if (!reloaded.keys().keySet().containsAll(previous.keys().keySet())) {
+            verifiedTokenCache.invalidateAll();
+            log.info("Retired JWT signing keys, {} remain", reloaded.keys().keySet());
+        }
+        if (!reloaded.currentKeyId().equals(previous.currentKeyId())) {
+            log.info("Rotated JWT signing key to {}", reloaded.currentKeyId());
+        }
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = header.getKeyId() != null ? header.getKeyId() : defaultKeyId;
+        Key key = ring.keys().get(keyId);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id");
+        }
+        return key;
+    }
+
+    static Key deriveKey(String secret) {
+        String encoded = Base64.getEncoder().encodeToString(secret.getBytes());
+        return Keys.hmacShaKeyFor(encoded.getBytes());
+    }
+
+    private boolean hasKeyFile() {
+        return jwtProperties.getKeyFile() != null && !jwtProperties.getKeyFile().isEmpty();
+    }
+
+    private Ring readKeyFile() throws IOException {
+        Properties file = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(jwtProperties.getKeyFile()), StandardCharsets.UTF_8)) {
+            file.load(reader);
+        }
+        Map<String, Key> keys = new HashMap<>();
+        for (String name : file.stringPropertyNames()) {
+            if (name.startsWith(KEY_PREFIX)) {
+                keys.put(name.substring(KEY_PREFIX.length()), deriveKey(file.getProperty(name)));
+            }
+        }
+        String currentKeyId = file.getProperty(CURRENT_PROPERTY);
+        if (currentKeyId == null || !keys.containsKey(currentKeyId)) {
+            throw new IllegalArgumentException("The current key id must name one of the keys: " + currentKeyId);
+        }
+        return new Ring(Map.copyOf(keys), currentKeyId);
+    }
+
+    public record SigningKey(String id, Key key) {
+    }
+
+    // Replaced as a whole, so a reader never sees a current key id without its key.
+    private record Ring(Map<String, Key> keys, String currentKeyId) {
+    }
+}
@@ -5,11 +5,25 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 @Setter
 @Component
 @ConfigurationProperties(prefix = "jwt")
 public class JwtProperties {
     private String secretKey;
+    // Key id of secret-key; also assumed for tokens issued without a kid header.
+    private String keyId = "default";
+    // Retired signing keys by key id, still accepted for verification until their tokens expire.
+    private Map<String, String> verificationKeys = new HashMap<>();
+    // Shared file holding the whole key ring, re-read by every node; see JwtKeyRing. When set,
+    // secret-key and verification-keys are not used.
+    private String keyFile = "";
     private long tokenValidityInSeconds;
+    private long verifiedTokenCacheSize = 10_000;
+    // When enabled, /user responses return the caller's token until less than this share of its lifetime is left.
+    private boolean reuseTokens = false;
+    private double reuseMinRemainingRatio = 0.5;
 } 
\ No newline at end of file
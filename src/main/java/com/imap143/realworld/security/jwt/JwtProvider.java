@@ -1,70 +1,121 @@
 package com.imap143.realworld.security.jwt;
 
+import com.imap143.realworld.security.CustomUserDetails;
+import com.imap143.realworld.security.jwt.VerifiedTokenCache.VerifiedToken;
+import com.imap143.realworld.user.model.User;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
-import org.springframework.context.annotation.Lazy;
 
-import java.security.Key;
-import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtProvider {
 
+    static final String EMAIL_CLAIM = "email";
+    static final String USERNAME_CLAIM = "username";
+    static final String TOKEN_VERSION_CLAIM = "ver";
+
     private final JwtProperties jwtProperties;
-    
-    @Lazy
-    private final UserDetailsService userDetailsService;
-    
-    private Key key;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final JwtKeyRing jwtKeyRing;
+
+    // JwtParser is immutable and thread-safe, so a single instance is shared by every request.
+    private JwtParser jwtParser;
 
     @PostConstruct
     protected void init() {
-        String secretKey = Base64.getEncoder().encodeToString(jwtProperties.getSecretKey().getBytes());
-        this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(jwtKeyRing)
+                .build();
     }
 
-    public String createToken(long userId) {
-        Claims claims = Jwts.claims().setSubject(String.valueOf(userId));
+    // The token carries everything the principal needs, so authenticating a request never touches the database.
+    public String createToken(User user) {
+        Claims claims = Jwts.claims().setSubject(String.valueOf(user.getId()));
+        claims.put(EMAIL_CLAIM, user.getEmail());
+        claims.put(USERNAME_CLAIM, user.getUsername());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
         Date now = new Date();
         Date validity = new Date(now.getTime() + jwtProperties.getTokenValidityInSeconds() * 1000);
 
+        JwtKeyRing.SigningKey signingKey = jwtKeyRing.current();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.id())
                 .setClaims(claims)
                 .setIssuedAt(now)
                 .setExpiration(validity)
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey.key(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getUserId(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    public Optional<Authentication> authenticate(String token) {
+        VerifiedToken verifiedToken = verifiedTokenCache.get(token, this::verify);
+        if (verifiedToken == null
+                || !tokenVersionRegistry.isCurrent(verifiedToken.userId(), verifiedToken.tokenVersion())) {
+            return Optional.empty();
+        }
+        return Optional.of(verifiedToken.authentication());
     }
 
-    public String getUserId(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    private VerifiedToken verify(String token) {
+        try {
+            return parseClaims(token)
+                    .filter(this::hasPrincipalClaims)
+                    .map(claims -> new VerifiedToken(
+                            getAuthentication(token, claims),
+                            Long.parseLong(claims.getSubject()),
+                            claims.get(TOKEN_VERSION_CLAIM, Long.class),
+                            claims.getExpiration().getTime()))
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
-    public boolean validateToken(String token) {
+    // Verifies the signature and expiry once; an empty result means the token must not be trusted.
+    public Optional<Claims> parseClaims(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return Optional.of(jwtParser.parseClaimsJws(token).getBody());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    public JwtAuthentication getAuthentication(String token, Claims claims) {
+        CustomUserDetails userDetails = new CustomUserDetails(
+                Long.parseLong(claims.getSubject()),
+                claims.get(EMAIL_CLAIM, String.class),
+                claims.get(USERNAME_CLAIM, String.class));
+        return new JwtAuthentication(userDetails, token,
+                claims.get(TOKEN_VERSION_CLAIM, Long.class),
+                claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime());
+    }
+
+    // Hands back the caller's own token while it still matches the user and has enough lifetime left,
+    // so polling GET /user does not sign a new token on every call.
+    public String reuseOrCreateToken(User user, Authentication authentication) {
+        if (jwtProperties.isReuseTokens()
+                && authentication instanceof JwtAuthentication jwtAuthentication
+                && jwtAuthentication.isIssuedFor(user)
+                && jwtAuthentication.remainingLifetimeShare(System.currentTimeMillis())
+                        > jwtProperties.getReuseMinRemainingRatio()) {
+            return jwtAuthentication.getToken();
         }
+        return createToken(user);
+    }
+
+    private boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(TOKEN_VERSION_CLAIM) != null
+                && claims.get(EMAIL_CLAIM) != null
+                && claims.get(USERNAME_CLAIM) != null
+                && claims.getIssuedAt() != null
+                && claims.getExpiration() != null;
     }
-} 
\ No newline at end of file
+}
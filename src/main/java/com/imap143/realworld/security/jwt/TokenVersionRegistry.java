@@ -0,0 +1,58 @@
+package com.imap143.realworld.security.jwt;
+
+import com.imap143.realworld.user.model.TokenVersion;
+import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.user.service.TokensRevokedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Minimum accepted token version per user. Only users who ever revoked their tokens
+// (logout, password change) have an entry, so the table stays small. A revocation on this node
+// applies as soon as it commits; one made on another node is read back from users by the
+// periodic reload, so a revoked token stays valid here for up to jwt.revocation-reload-interval.
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final Map<Long, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        reload();
+        log.info("Loaded {} token revocations", minimumVersions.size());
+    }
+
+    // Versions only ever go up, so merging the stored ones in never undoes a newer local revocation.
+    @Scheduled(initialDelayString = "${jwt.revocation-reload-interval:PT10S}",
+            fixedDelayString = "${jwt.revocation-reload-interval:PT10S}")
+    public void reload() {
+        for (TokenVersion tokenVersion : userRepository.findRevokedTokenVersions()) {
+            revoke(tokenVersion.userId(), tokenVersion.tokenVersion());
+        }
+    }
+
+    public boolean isCurrent(long userId, long tokenVersion) {
+        return tokenVersion >= minimumVersions.getOrDefault(userId, 0L);
+    }
+
+    public void revoke(long userId, long minimumVersion) {
+        minimumVersions.merge(userId, minimumVersion, Math::max);
+    }
+
+    // Applied after commit so a rolled back password change cannot lock the user out.
+    @TransactionalEventListener(fallbackExecution = true)
+    void onTokensRevoked(TokensRevokedEvent event) {
+        revoke(event.userId(), event.tokenVersion());
+    }
+}
@@ -1,15 +1,18 @@
 package com.imap143.realworld.user.controller;
 
+import com.imap143.realworld.security.LoginThrottle;
 import com.imap143.realworld.security.jwt.JwtProvider;
 import com.imap143.realworld.user.dto.UserLoginRequestDto;
 import com.imap143.realworld.user.dto.UserResponseDto;
 import com.imap143.realworld.user.dto.UserSignUpRequestDto;
 import com.imap143.realworld.user.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,41 +24,58 @@ import org.springframework.web.bind.annotation.PutMapping;
 import com.imap143.realworld.security.CustomUserDetails;
 import com.imap143.realworld.user.dto.UserUpdateRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
     private final JwtProvider jwtProvider;
+    private final LoginThrottle loginThrottle;
 
+    // Registration and login hash on the password hashing pool, releasing the request thread meanwhile.
     @PostMapping(value = "/users")
-    public ResponseEntity<UserResponseDto> registerUser(@Valid @RequestBody UserSignUpRequestDto requestDto) {
-        final var savedUser = userService.register(requestDto.signUpRequest());
-        String token = jwtProvider.createToken(savedUser.getId());
-        return ResponseEntity.ok(UserResponseDto.fromUser(savedUser, token));
+    public CompletableFuture<ResponseEntity<UserResponseDto>> registerUser(@Valid @RequestBody UserSignUpRequestDto requestDto) {
+        return userService.register(requestDto.signUpRequest())
+                .thenApply(savedUser -> {
+                    String token = jwtProvider.createToken(savedUser);
+                    return ResponseEntity.ok(UserResponseDto.fromUser(savedUser, token));
+                });
     }
 
     @PostMapping(value = "/users/login")
-    public ResponseEntity<UserResponseDto> loginUser(@Valid @RequestBody UserLoginRequestDto requestDto) {
-        return of(userService.login(requestDto.getEmail(), requestDto.getPassword())
-                .map(user -> {
-                    String token = jwtProvider.createToken(user.getId());
+    public CompletableFuture<ResponseEntity<UserResponseDto>> loginUser(@Valid @RequestBody UserLoginRequestDto requestDto,
+                                                                        HttpServletRequest request) {
+        loginThrottle.checkAttempt(requestDto.getEmail(), request.getRemoteAddr());
+        return userService.login(requestDto.getEmail(), requestDto.getPassword())
+                .thenApply(loggedIn -> of(loggedIn.map(user -> {
+                    String token = jwtProvider.createToken(user);
                     return UserResponseDto.fromUser(user, token);
-                }));
+                })));
+    }
+
+    @PostMapping(value = "/users/logout")
+    public ResponseEntity<Void> logoutUser(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        userService.revokeTokens(userDetails.getId());
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping(value = "/user")
-    public ResponseEntity<UserResponseDto> getCurrentUser(@AuthenticationPrincipal CustomUserDetails userDetails) {
+    public ResponseEntity<UserResponseDto> getCurrentUser(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                          Authentication authentication) {
         return of(userService.findById(userDetails.getId())
                 .map(currentUser -> {
-                    String token = jwtProvider.createToken(currentUser.getId());
+                    String token = jwtProvider.reuseOrCreateToken(currentUser, authentication);
                     return UserResponseDto.fromUser(currentUser, token);
                 }));
     }
 
     @PutMapping(value = "/user")
-    public ResponseEntity<UserResponseDto> updateUser(@AuthenticationPrincipal CustomUserDetails userDetails, @Valid @RequestBody UserUpdateRequestDto updateRequest) {
+    public ResponseEntity<UserResponseDto> updateUser(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                      Authentication authentication,
+                                                      @Valid @RequestBody UserUpdateRequestDto updateRequest) {
         final var updatedUser = userService.update(userDetails.getId(), updateRequest.toUpdateRequest());
-        String token = jwtProvider.createToken(updatedUser.getId());
+        String token = jwtProvider.reuseOrCreateToken(updatedUser, authentication);
         return ResponseEntity.ok(UserResponseDto.fromUser(updatedUser, token));
     }
 }
\ No newline at end of file
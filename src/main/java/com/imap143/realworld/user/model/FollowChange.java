@@ -0,0 +1,44 @@
+package com.imap143.realworld.user.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// One follow or unfollow, appended in the transaction that changes user_follows. Nodes replay the
+// recent tail to catch up on follows made elsewhere and after loading a follow graph snapshot.
+@Table(name = "user_follow_changes",
+    indexes = @Index(name = "idx_user_follow_changes_changed_at", columnList = "changed_at")
+)
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class FollowChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "follower_id", nullable = false)
+    private long followerId;
+
+    @Column(name = "followed_id", nullable = false)
+    private long followedId;
+
+    // true for a follow, false for an unfollow.
+    @Column(nullable = false)
+    private boolean following;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public FollowChange(long followerId, long followedId, boolean following) {
+        this.followerId = followerId;
+        this.followedId = followedId;
+        this.following = following;
+        this.changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -21,7 +21,15 @@ public class Password {
 
     }
 
+    public String getEncodedPassword() {
+        return encodedPassword;
+    }
+
     boolean matches(String rawPassword, PasswordEncoder passwordEncoder){
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
+
+    boolean needsUpgrade(PasswordEncoder passwordEncoder){
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
 }
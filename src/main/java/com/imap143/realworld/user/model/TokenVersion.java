@@ -0,0 +1,4 @@
+package com.imap143.realworld.user.model;
+
+public record TokenVersion(long userId, long tokenVersion) {
+}
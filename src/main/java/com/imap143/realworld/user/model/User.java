@@ -7,6 +7,7 @@ import lombok.AccessLevel;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
 @Entity
@@ -37,13 +38,19 @@ public class User {
     @Embedded
     private Profile profile;
 
+    // Tokens carrying a lower version are rejected; bumping it signs the user out everywhere.
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
     @ManyToMany
     @JoinTable(
         name = "user_follows",
         joinColumns = @JoinColumn(name = "follower_id"),
         inverseJoinColumns = @JoinColumn(name = "followed_id"),
         foreignKey = @ForeignKey(name = "fk_user_follower"),
-        inverseForeignKey = @ForeignKey(name = "fk_user_followed")
+        inverseForeignKey = @ForeignKey(name = "fk_user_followed"),
+        // The primary key leads with followed_id; "whom does this user follow" starts from the follower.
+        indexes = @Index(name = "idx_user_follows_follower_followed", columnList = "follower_id, followed_id")
     )
     private final Set<User> following = new HashSet<>();
 
@@ -73,13 +80,30 @@ public class User {
         return password.matches(rawPassword, passwordEncoder);
     }
 
+    // Re-encodes with the current algorithm and cost and returns the hash it replaced, or empty when
+    // the stored hash is current; only valid right after rawPassword was verified.
+    public Optional<String> upgradePasswordEncoding(String rawPassword, PasswordEncoder passwordEncoder) {
+        if (!password.needsUpgrade(passwordEncoder)) {
+            return Optional.empty();
+        }
+        String replaced = password.getEncodedPassword();
+        this.password = Password.of(rawPassword, passwordEncoder);
+        return Optional.of(replaced);
+    }
+
     public void update(UserUpdateRequest request, PasswordEncoder passwordEncoder) {
         request.getEmail().ifPresent(this::updateEmail);
         request.getUsername().ifPresent(this::updateUsername);
         request.getBio().ifPresent(this::updateBio);
         request.getImage().ifPresent(this::updateImage);
-        request.getPassword().ifPresent(password -> 
-            this.password = Password.of(password, passwordEncoder));
+        request.getPassword().ifPresent(password -> {
+            this.password = Password.of(password, passwordEncoder);
+            revokeTokens();
+        });
+    }
+
+    public void revokeTokens() {
+        this.tokenVersion++;
     }
 
     private void updateEmail(String email) {
@@ -0,0 +1,22 @@
+package com.imap143.realworld.user.repository;
+
+import com.imap143.realworld.user.model.FollowChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FollowChangeRepository extends JpaRepository<FollowChange, Long> {
+
+    // Replayed in the order they were written, so the last change to a follow wins.
+    List<FollowChange> findByChangedAtGreaterThanEqualOrderByIdAsc(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM FollowChange c WHERE c.changedAt < :before")
+    int deleteChangedBefore(@Param("before") LocalDateTime before);
+}
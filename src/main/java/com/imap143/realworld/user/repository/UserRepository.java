@@ -1,8 +1,14 @@
 package com.imap143.realworld.user.repository;
 
+import com.imap143.realworld.user.model.TokenVersion;
 import com.imap143.realworld.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,6 +18,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByProfile_Username(String username);
 
+    // Writes the upgraded hash only if the stored one is still the hash that was verified; returns 0
+    // when it changed in the meantime, in which case the newer password stays.
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password.encodedPassword = :upgraded WHERE u.id = :id AND u.password.encodedPassword = :current")
+    int updatePasswordIfUnchanged(@Param("id") long id, @Param("current") String current, @Param("upgraded") String upgraded);
+
+    @Query("SELECT new com.imap143.realworld.user.model.TokenVersion(u.id, u.tokenVersion) FROM User u WHERE u.tokenVersion > 0")
+    List<TokenVersion> findRevokedTokenVersions();
+
+    // Both statements hit the (followed_id, follower_id) primary key and return the number of rows
+    // changed, without loading either user's follow collections.
+    @Modifying
+    @Query(value = "INSERT INTO user_follows (followed_id, follower_id) VALUES (:followedId, :followerId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertFollow(@Param("followerId") long followerId, @Param("followedId") long followedId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_follows WHERE followed_id = :followedId AND follower_id = :followerId",
+            nativeQuery = true)
+    int deleteFollow(@Param("followerId") long followerId, @Param("followedId") long followedId);
+
+    // Users with at least the given number of followers, counted along the (followed_id, follower_id) primary key.
+    @Query(value = "SELECT followed_id FROM user_follows GROUP BY followed_id HAVING COUNT(*) >= :threshold",
+            nativeQuery = true)
+    List<Long> findIdsWithFollowersAtLeast(@Param("threshold") long threshold);
+
     /*
     Optional<User> findByEmailAndPassword(String email, String password);
     
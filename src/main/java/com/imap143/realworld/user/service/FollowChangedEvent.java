@@ -0,0 +1,5 @@
+package com.imap143.realworld.user.service;
+
+// Published inside the transaction that adds or removes a user_follows row.
+public record FollowChangedEvent(long followerId, long followedId, boolean following) {
+}
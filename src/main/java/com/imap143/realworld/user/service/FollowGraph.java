@@ -0,0 +1,332 @@
+package com.imap143.realworld.user.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Who follows whom, held in memory as one sorted long[] of followed ids per follower, keyed by an
+// open-addressing table of primitive ids. "Does A follow B" is a hash probe plus a binary search
+// and boxes nothing; the Hibernate collections on User are never initialized for it.
+// Filled and kept in step with other nodes by FollowGraphStore; follows made on this node are
+// applied as they happen.
+@Slf4j
+@Component
+public class FollowGraph implements MeterBinder {
+
+    // Identity ids start at 1, so 0 marks a free slot.
+    private static final long FREE = 0L;
+    private static final long[] NONE = new long[0];
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    // Heap layout assumed by the byte count: 16-byte array headers and 4-byte compressed references.
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Changes of transactions still open, oldest first.
+    private final Queue<PendingChange> pending = new ConcurrentLinkedQueue<>();
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[][] following = new long[INITIAL_CAPACITY][];
+    private int users;
+    // Both written under the write lock and kept in step with every change, so the gauges read
+    // them without the lock or a pass over the table.
+    private volatile long edges;
+    private volatile long bytes = tableBytes(INITIAL_CAPACITY);
+
+    // Receives one follower and the ascending ids it follows.
+    @FunctionalInterface
+    public interface FollowerVisitor {
+        void visit(long followerId, long[] followedIds);
+    }
+
+    private record PendingChange(long followerId, long followedId, boolean following) {
+    }
+
+    public record Footprint(int users, long edges, long bytes) {
+
+        public long bytesPerMillionEdges() {
+            return edges == 0 ? 0 : bytes * 1_000_000 / edges;
+        }
+    }
+
+    // Replaces the whole graph with what the source hands to the visitor. Arrays must be sorted
+    // without duplicates and are kept as they are, not copied.
+    public void replaceAll(Consumer<FollowerVisitor> source) {
+        lock.writeLock().lock();
+        try {
+            keys = new long[INITIAL_CAPACITY];
+            following = new long[INITIAL_CAPACITY][];
+            users = 0;
+            edges = 0;
+            bytes = tableBytes(INITIAL_CAPACITY);
+            source.accept((followerId, followedIds) -> {
+                put(followerId, followedIds);
+                edges += followedIds.length;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Footprint footprint = footprint();
+        log.info("Follow graph holds {} follows of {} users in {} bytes ({} per million follows)",
+                footprint.edges(), footprint.users(), footprint.bytes(), footprint.bytesPerMillionEdges());
+    }
+
+    // Visits every follower with at least one committed follow under the read lock, so the view
+    // is consistent. Changes of transactions still open are left out, since they may yet be
+    // undone; one that commits while this runs is left out too and picked up again by the replay
+    // of the change log, which starts before the snapshot's watermark.
+    public void forEachCommittedFollower(FollowerVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            Map<Long, List<PendingChange>> pendingByFollower = pending.stream()
+                    .collect(Collectors.groupingBy(PendingChange::followerId));
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] == FREE) {
+                    continue;
+                }
+                List<PendingChange> changes = pendingByFollower.get(keys[slot]);
+                long[] ids = changes == null ? following[slot] : committed(following[slot], changes);
+                if (ids.length > 0) {
+                    visitor.visit(keys[slot], ids);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The follower's ids with each pending change undone, latest first, so every follow ends up
+    // as it was before the oldest change to it. Undoing sets the follow to the opposite of the
+    // change, which also holds while the change is registered but not applied yet.
+    private static long[] committed(long[] ids, List<PendingChange> changes) {
+        long[] committed = ids;
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            PendingChange change = changes.get(i);
+            committed = change.following() ? without(committed, change.followedId()) : with(committed, change.followedId());
+        }
+        return committed;
+    }
+
+    public boolean follows(long followerId, long followedId) {
+        lock.readLock().lock();
+        try {
+            return Arrays.binarySearch(followingOf(followerId), followedId) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ascending ids of everyone the follower follows; a copy the caller may keep.
+    public long[] following(long followerId) {
+        lock.readLock().lock();
+        try {
+            return followingOf(followerId).clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Which of the given users the follower follows, e.g. the authors on one page.
+    public Set<Long> followedAmong(long followerId, Collection<Long> userIds) {
+        Set<Long> followed = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            long[] ids = followingOf(followerId);
+            for (long userId : userIds) {
+                if (Arrays.binarySearch(ids, userId) >= 0) {
+                    followed.add(userId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return followed;
+    }
+
+    public boolean add(long followerId, long followedId) {
+        lock.writeLock().lock();
+        try {
+            long[] ids = followingOf(followerId);
+            long[] grown = with(ids, followedId);
+            if (grown == ids) {
+                return false;
+            }
+            put(followerId, grown);
+            edges++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long followerId, long followedId) {
+        lock.writeLock().lock();
+        try {
+            long[] ids = followingOf(followerId);
+            long[] shrunk = without(ids, followedId);
+            if (shrunk == ids) {
+                return false;
+            }
+            put(followerId, shrunk);
+            edges--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applied as soon as the follow is written, so the same request already sees it, and undone if
+    // the transaction does not commit.
+    @EventListener
+    void onFollowChanged(FollowChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event.followerId(), event.followedId(), event.following());
+            return;
+        }
+        // Registered before it is applied, so forEachCommittedFollower cannot see the change unregistered.
+        PendingChange change = new PendingChange(event.followerId(), event.followedId(), event.following());
+        pending.add(change);
+        apply(event.followerId(), event.followedId(), event.following());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    apply(event.followerId(), event.followedId(), !event.following());
+                }
+                pending.remove(change);
+            }
+        });
+    }
+
+    void apply(long followerId, long followedId, boolean follow) {
+        if (follow) {
+            add(followerId, followedId);
+        } else {
+            remove(followerId, followedId);
+        }
+    }
+
+    // Retained heap size of the table and every adjacency array. Each follow costs 8 bytes; each
+    // follower adds an array header plus two table slots at the table's load factor.
+    public Footprint footprint() {
+        lock.readLock().lock();
+        try {
+            return new Footprint(users, edges, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.follow-graph.edges", this, graph -> graph.edges)
+                .description("Follows held in memory")
+                .register(registry);
+        Gauge.builder("users.follow-graph.bytes", this, graph -> graph.bytes)
+                .description("Estimated heap retained by the in-memory follow graph")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static long tableBytes(int capacity) {
+        return arrayBytes(capacity, Long.BYTES) + arrayBytes(capacity, REFERENCE_BYTES);
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        long bytes = ARRAY_HEADER_BYTES + (long) length * elementBytes;
+        return (bytes + 7) & ~7L;
+    }
+
+    // A copy with the id inserted in order, or the same array when it is already there.
+    private static long[] with(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertAt = -position - 1;
+        long[] grown = new long[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, insertAt);
+        grown[insertAt] = id;
+        System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+        return grown;
+    }
+
+    // A copy without the id, or the same array when it is not there.
+    private static long[] without(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] shrunk = new long[ids.length - 1];
+        System.arraycopy(ids, 0, shrunk, 0, position);
+        System.arraycopy(ids, position + 1, shrunk, position, ids.length - position - 1);
+        return shrunk;
+    }
+
+    private long[] followingOf(long followerId) {
+        int slot = slot(keys, followerId);
+        return keys[slot] == followerId ? following[slot] : NONE;
+    }
+
+    // Followers whose last follow is removed keep their slot with an empty array, so there are
+    // no tombstones and probe chains never break.
+    private void put(long followerId, long[] ids) {
+        int slot = slot(keys, followerId);
+        if (keys[slot] == FREE) {
+            keys[slot] = followerId;
+            users++;
+        } else {
+            bytes -= arrayBytes(following[slot].length, Long.BYTES);
+        }
+        following[slot] = ids;
+        bytes += arrayBytes(ids.length, Long.BYTES);
+        if (users * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    // Kept at most half full, so a probe ends after a couple of slots.
+    private void resize() {
+        long[] oldKeys = keys;
+        long[][] oldFollowing = following;
+        keys = new long[oldKeys.length * 2];
+        following = new long[keys.length][];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                following[slot] = oldFollowing[i];
+            }
+        }
+        bytes += tableBytes(keys.length) - tableBytes(oldKeys.length);
+    }
+
+    // Linear probing from a mixed hash; returns the key's slot or the free slot where it belongs.
+    private static int slot(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (table[slot] != FREE && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,22 @@
+package com.imap143.realworld.user.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "users.follow-graph")
+public class FollowGraphProperties {
+    // Where the follow graph snapshot is written and loaded from; empty disables snapshots.
+    private String snapshotPath = "";
+    // How far before a replay watermark changes are read again, covering commits that landed late
+    // and clock differences between nodes. Must exceed the longest follow transaction.
+    private Duration replayOverlap = Duration.ofMinutes(1);
+    // Changes older than this are deleted; a snapshot older than this is ignored on startup.
+    private Duration changeLogRetention = Duration.ofDays(7);
+}
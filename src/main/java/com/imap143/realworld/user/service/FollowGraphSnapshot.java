@@ -0,0 +1,122 @@
+package com.imap143.realworld.user.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+// Binary image of a FollowGraph, written and read through memory-mapped files. Big-endian layout:
+//
+//   int magic, int version, long watermark seconds, int watermark nanos, int followers, long follows
+//   per follower: long follower id, int count, long[count] followed ids (ascending)
+//   long CRC32 of everything before it
+//
+// The watermark is the point from which the follow change log must be replayed on top of it.
+// A snapshot is written to a temporary file and moved into place, so a crash mid-write leaves
+// the previous one intact.
+final class FollowGraphSnapshot {
+
+    private static final int MAGIC = 0x52574647; // "RWFG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FOLLOWER_HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+
+    private FollowGraphSnapshot() {
+    }
+
+    static void write(FollowGraph graph, LocalDateTime watermark, Path path) throws IOException {
+        List<long[]> adjacency = new ArrayList<>();
+        long[][] followers = {new long[1024]};
+        long[] follows = {0};
+        graph.forEachCommittedFollower((followerId, followedIds) -> {
+            if (adjacency.size() == followers[0].length) {
+                followers[0] = Arrays.copyOf(followers[0], followers[0].length * 2);
+            }
+            followers[0][adjacency.size()] = followerId;
+            adjacency.add(followedIds);
+            follows[0] += followedIds.length;
+        });
+
+        long size = HEADER_BYTES + (long) adjacency.size() * FOLLOWER_HEADER_BYTES + follows[0] * Long.BYTES + CHECKSUM_BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Follow graph snapshot of " + size + " bytes exceeds a single mapping");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(watermark.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(watermark.getNano())
+                    .putInt(adjacency.size())
+                    .putLong(follows[0]);
+            for (int i = 0; i < adjacency.size(); i++) {
+                long[] followedIds = adjacency.get(i);
+                buffer.putLong(followers[0][i]).putInt(followedIds.length);
+                buffer.asLongBuffer().put(followedIds);
+                buffer.position(buffer.position() + followedIds.length * Long.BYTES);
+            }
+            buffer.putLong(checksum(buffer, (int) size - CHECKSUM_BYTES));
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Replaces the graph's content and returns the snapshot's watermark; empty when there is no
+    // snapshot. A damaged or foreign file fails with an IOException and leaves the graph as it was.
+    static Optional<LocalDateTime> read(Path path, FollowGraph graph) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a follow graph snapshot: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodyEnd = (int) size - CHECKSUM_BYTES;
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || checksum(buffer, bodyEnd) != buffer.getLong(bodyEnd)) {
+                throw new IOException("Unreadable follow graph snapshot: " + path);
+            }
+
+            LocalDateTime watermark = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            int followers = buffer.getInt();
+            long follows = buffer.getLong();
+            if (HEADER_BYTES + (long) followers * FOLLOWER_HEADER_BYTES + follows * Long.BYTES != bodyEnd) {
+                throw new IOException("Truncated follow graph snapshot: " + path);
+            }
+            graph.replaceAll(visitor -> {
+                for (int i = 0; i < followers; i++) {
+                    long followerId = buffer.getLong();
+                    long[] followedIds = new long[buffer.getInt()];
+                    LongBuffer ids = buffer.asLongBuffer();
+                    ids.get(followedIds);
+                    buffer.position(buffer.position() + followedIds.length * Long.BYTES);
+                    visitor.visit(followerId, followedIds);
+                }
+            });
+            return Optional.of(watermark);
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,163 @@
+package com.imap143.realworld.user.service;
+
+import com.imap143.realworld.user.model.FollowChange;
+import com.imap143.realworld.user.repository.FollowChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+// Fills the FollowGraph on startup and keeps it in step with user_follows. A warm start maps the
+// last snapshot and replays the follow change log from its watermark; a cold start, or one whose
+// snapshot is missing, damaged or older than the log reaches, scans user_follows. The same replay
+// then runs periodically and picks up follows made on other nodes.
+@Slf4j
+@Component
+public class FollowGraphStore implements SmartInitializingSingleton {
+
+    private final FollowGraph followGraph;
+    private final FollowChangeRepository followChangeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final FollowGraphProperties properties;
+
+    // Every change made before this is reflected in the graph.
+    private volatile LocalDateTime coveredUntil;
+
+    public FollowGraphStore(FollowGraph followGraph, FollowChangeRepository followChangeRepository,
+                            JdbcTemplate jdbcTemplate, FollowGraphProperties properties) {
+        this.followGraph = followGraph;
+        this.followChangeRepository = followChangeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    // After every singleton, so the schema exists and the SQL init scripts have run.
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        String source;
+        Optional<LocalDateTime> watermark = readSnapshot();
+        if (watermark.isPresent()) {
+            coveredUntil = watermark.get();
+            int replayed = replay();
+            source = "snapshot and " + replayed + " logged changes";
+        } else {
+            coveredUntil = LocalDateTime.now();
+            scan();
+            source = "user_follows";
+        }
+        log.info("Follow graph ready from {} in {} ms", source, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Re-reads from an overlap before the watermark, so changes that committed late are not
+    // missed. Re-applying a change is harmless, and applying in id order leaves each follow as
+    // its last change set it.
+    @Scheduled(initialDelayString = "${users.follow-graph.replay-interval:PT10S}",
+            fixedDelayString = "${users.follow-graph.replay-interval:PT10S}")
+    public int replay() {
+        LocalDateTime started = LocalDateTime.now();
+        List<FollowChange> changes = followChangeRepository.findByChangedAtGreaterThanEqualOrderByIdAsc(
+                coveredUntil.minus(properties.getReplayOverlap()));
+        for (FollowChange change : changes) {
+            followGraph.apply(change.getFollowerId(), change.getFollowedId(), change.isFollowing());
+        }
+        coveredUntil = started;
+        return changes.size();
+    }
+
+    @Scheduled(initialDelayString = "${users.follow-graph.snapshot-interval:PT15M}",
+            fixedDelayString = "${users.follow-graph.snapshot-interval:PT15M}")
+    public void writeSnapshot() {
+        if (properties.getSnapshotPath().isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        Path path = Path.of(properties.getSnapshotPath());
+        try {
+            FollowGraphSnapshot.write(followGraph, coveredUntil, path);
+            log.info("Wrote follow graph snapshot {} in {} ms", path, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Could not write follow graph snapshot {}", path, e);
+        }
+    }
+
+    @Scheduled(cron = "${users.follow-graph.change-log-prune-cron:-}")
+    public void pruneChangeLog() {
+        int deleted = followChangeRepository.deleteChangedBefore(LocalDateTime.now().minus(properties.getChangeLogRetention()));
+        if (deleted > 0) {
+            log.info("Pruned {} follow changes", deleted);
+        }
+    }
+
+    // Only a snapshot whose replay window the change log still holds is usable.
+    private Optional<LocalDateTime> readSnapshot() {
+        if (properties.getSnapshotPath().isEmpty()) {
+            return Optional.empty();
+        }
+        Path path = Path.of(properties.getSnapshotPath());
+        LocalDateTime oldestLogged = LocalDateTime.now().minus(properties.getChangeLogRetention());
+        try {
+            Optional<LocalDateTime> watermark = FollowGraphSnapshot.read(path, followGraph);
+            if (watermark.isPresent() && watermark.get().minus(properties.getReplayOverlap()).isBefore(oldestLogged)) {
+                log.warn("Follow graph snapshot {} predates the change log, loading from user_follows", path);
+                return Optional.empty();
+            }
+            return watermark;
+        } catch (IOException e) {
+            log.warn("Could not read follow graph snapshot {}, loading from user_follows", path, e);
+            return Optional.empty();
+        }
+    }
+
+    // Rows arrive grouped by follower and sorted by followed id from idx_user_follows_follower_followed,
+    // so each adjacency array is built in one pass without sorting.
+    private void scan() {
+        followGraph.replaceAll(visitor -> {
+            Loader loader = new Loader(visitor);
+            jdbcTemplate.query("SELECT follower_id, followed_id FROM user_follows ORDER BY follower_id, followed_id", loader);
+            loader.flush();
+        });
+    }
+
+    private static class Loader implements RowCallbackHandler {
+        private final FollowGraph.FollowerVisitor visitor;
+        private long follower;
+        private long[] buffer = new long[16];
+        private int count;
+
+        Loader(FollowGraph.FollowerVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long followerId = rs.getLong(1);
+            if (followerId != follower) {
+                flush();
+                follower = followerId;
+            }
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, count * 2);
+            }
+            buffer[count++] = rs.getLong(2);
+        }
+
+        void flush() {
+            if (count > 0) {
+                visitor.visit(follower, Arrays.copyOf(buffer, count));
+            }
+            count = 0;
+        }
+    }
+}
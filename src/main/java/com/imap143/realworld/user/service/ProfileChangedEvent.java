@@ -0,0 +1,5 @@
+package com.imap143.realworld.user.service;
+
+// Published when a user's username, bio or image changes, so copies of the profile can be dropped.
+public record ProfileChangedEvent(long userId) {
+}
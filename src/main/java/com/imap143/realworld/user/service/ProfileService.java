@@ -1,6 +1,10 @@
 package com.imap143.realworld.user.service;
+import com.imap143.realworld.user.model.FollowChange;
 import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.repository.FollowChangeRepository;
+import com.imap143.realworld.user.repository.UserRepository;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,9 +19,16 @@ import com.imap143.realworld.exception.RealWorldException;
 public class ProfileService {
 
     private final UserService userService;
+    private final UserRepository userRepository;
+    private final FollowChangeRepository followChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProfileService(UserService userService) {
+    public ProfileService(UserService userService, UserRepository userRepository,
+                          FollowChangeRepository followChangeRepository, ApplicationEventPublisher eventPublisher) {
         this.userService = userService;
+        this.userRepository = userRepository;
+        this.followChangeRepository = followChangeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<Profile> viewProfile(String username) {
@@ -37,7 +48,11 @@ public class ProfileService {
             throw new RealWorldException("Users cannot follow themselves");
         }
     
-        currentUser.getFollowing().add(userToFollow);
+        // A keyed insert instead of adding to currentUser.getFollowing(), which would load every followed user.
+        if (userRepository.insertFollow(currentUser.getId(), userToFollow.getId()) > 0) {
+            followChangeRepository.save(new FollowChange(currentUser.getId(), userToFollow.getId(), true));
+            eventPublisher.publishEvent(new FollowChangedEvent(currentUser.getId(), userToFollow.getId(), true));
+        }
         Profile profile = userToFollow.getProfile();
         profile.setFollowing(true);
         
@@ -53,7 +68,10 @@ public class ProfileService {
                 .orElseThrow(() -> new ResourceNotFoundException("User to unfollow not found"));
 
         if (currentUser.getId() != userToUnfollow.getId()) {
-            currentUser.getFollowing().remove(userToUnfollow);
+            if (userRepository.deleteFollow(currentUser.getId(), userToUnfollow.getId()) > 0) {
+                followChangeRepository.save(new FollowChange(currentUser.getId(), userToUnfollow.getId(), false));
+                eventPublisher.publishEvent(new FollowChangedEvent(currentUser.getId(), userToUnfollow.getId(), false));
+            }
             Profile profile = userToUnfollow.getProfile();
             profile.setFollowing(false);
             return profile;
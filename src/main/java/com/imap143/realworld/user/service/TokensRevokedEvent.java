@@ -0,0 +1,5 @@
+package com.imap143.realworld.user.service;
+
+// Published when every token issued below tokenVersion must stop authenticating.
+public record TokensRevokedEvent(long userId, long tokenVersion) {
+}
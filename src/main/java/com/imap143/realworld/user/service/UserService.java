@@ -1,9 +1,14 @@
 package com.imap143.realworld.user.service;
 
+import com.imap143.realworld.security.PasswordHashingExecutor;
 import com.imap143.realworld.user.model.Password;
 import com.imap143.realworld.user.model.User;
 import com.imap143.realworld.user.model.UserSignUpRequest;
 import com.imap143.realworld.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -13,6 +18,8 @@ import com.imap143.realworld.exception.DuplicateEmailException;
 import com.imap143.realworld.exception.DuplicateUsernameException;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @Transactional(readOnly = true)
@@ -20,25 +27,52 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Executor taskExecutor;
 
-    public UserService(PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public UserService(PasswordEncoder passwordEncoder, UserRepository userRepository,
+                       ApplicationEventPublisher eventPublisher, PasswordHashingExecutor passwordHashingExecutor,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.taskExecutor = taskExecutor;
     }
 
-    @Transactional
-    public User register(UserSignUpRequest userSignUpRequest) {
-        final var encodedPassword = Password.of(userSignUpRequest.getPassword(), passwordEncoder);
-        return userRepository.save(User.of(
-                userSignUpRequest.getEmail(), 
-                userSignUpRequest.getUsername(),
-                encodedPassword));
+    // Hashing must not run inside a transaction, otherwise a connection is held while BCrypt works.
+    // The insert must not hold a hashing thread either: it runs on the application task executor,
+    // or right here when the hash is already done, as it always is with hashing on the calling thread.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<User> register(UserSignUpRequest userSignUpRequest) {
+        CompletableFuture<Password> hashed = passwordHashingExecutor.submit(
+                () -> Password.of(userSignUpRequest.getPassword(), passwordEncoder));
+        Executor saving = hashed.isDone() ? Runnable::run : taskExecutor;
+        return hashed.thenApplyAsync(encodedPassword -> userRepository.save(User.of(
+                        userSignUpRequest.getEmail(),
+                        userSignUpRequest.getUsername(),
+                        encodedPassword)), saving);
     }
 
-    @Transactional(readOnly = true)
-    public Optional<User> login(String email, String password) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CompletableFuture<Optional<User>> login(String email, String password) {
         return userRepository.findByEmail(email)
-                .filter(user -> user.matchPassword(password, passwordEncoder));
+                .map(user -> passwordHashingExecutor.submit(() -> authenticate(user, password)))
+                .orElseGet(() -> CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    // Stored hashes with an old algorithm or a lower cost are transparently re-encoded on a
+    // successful login. Only the hash column is written, and only if it still holds the hash just
+    // verified: user was read before BCrypt ran, and saving it would overwrite a password change or
+    // token revocation committed meanwhile.
+    private Optional<User> authenticate(User user, String password) {
+        if (!user.matchPassword(password, passwordEncoder)) {
+            return Optional.empty();
+        }
+        user.upgradePasswordEncoding(password, passwordEncoder).ifPresent(replaced ->
+                userRepository.updatePasswordIfUnchanged(user.getId(), replaced, user.getPassword().getEncodedPassword()));
+        return Optional.of(user);
     }
 
     @Transactional(readOnly = true)
@@ -71,9 +105,25 @@ public class UserService {
             checkUsernameDuplication(username, userId));
         
         user.update(updateRequest, passwordEncoder);
+        if (updateRequest.getUsername().isPresent() || updateRequest.getBio().isPresent()
+                || updateRequest.getImage().isPresent()) {
+            eventPublisher.publishEvent(new ProfileChangedEvent(user.getId()));
+        }
+        if (updateRequest.getPassword().isPresent()) {
+            eventPublisher.publishEvent(new TokensRevokedEvent(user.getId(), user.getTokenVersion()));
+        }
         return user;
     }
 
+    @Transactional
+    public void revokeTokens(long userId) {
+        User user = findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        user.revokeTokens();
+        eventPublisher.publishEvent(new TokensRevokedEvent(user.getId(), user.getTokenVersion()));
+    }
+
     private void checkEmailDuplication(String email, long userId) {
         userRepository.findByEmail(email)
                 .filter(user -> user.getId() != userId)
@@ -0,0 +1,29 @@
+package com.imap143.realworld.article.model;
+
+import com.imap143.realworld.exception.RealWorldException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArticleCursorTest {
+
+    @Test
+    void encode_ThenDecode_ReturnsSamePosition() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 6, 1, 12, 30, 15, 123_456_000), 42L);
+
+        assertThat(ArticleCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_WithEmptyValue_ReturnsFirst() {
+        assertThat(ArticleCursor.decode("")).isEqualTo(ArticleCursor.FIRST);
+    }
+
+    @Test
+    void decode_WithGarbage_ThrowsException() {
+        assertThrows(RealWorldException.class, () -> ArticleCursor.decode("not-a-cursor"));
+    }
+}
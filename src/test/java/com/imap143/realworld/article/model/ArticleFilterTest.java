@@ -0,0 +1,43 @@
+package com.imap143.realworld.article.model;
+
+import com.imap143.realworld.exception.RealWorldException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArticleFilterTest {
+
+    @Test
+    void of_WithSingleTag_EqualsRegardlessOfTagMatch() {
+        ArticleFilter any = ArticleFilter.of(List.of("java"), ArticleFilter.TagMatch.ANY, null, null);
+
+        assertThat(any).isEqualTo(ArticleFilter.tag("java"));
+    }
+
+    @Test
+    void of_WithRepeatedTags_IgnoresOrderAndDuplicates() {
+        ArticleFilter first = ArticleFilter.of(List.of("java", "spring", "java"), ArticleFilter.TagMatch.ALL, "author", null);
+        ArticleFilter second = ArticleFilter.of(List.of("spring", "java"), ArticleFilter.TagMatch.ALL, "author", null);
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first.isUnfiltered()).isFalse();
+    }
+
+    @Test
+    void of_WithTooManyTags_ThrowsException() {
+        List<String> tags = IntStream.rangeClosed(0, ArticleFilter.MAX_TAGS).mapToObj(i -> "tag" + i).toList();
+
+        assertThrows(RealWorldException.class, () -> ArticleFilter.of(tags, ArticleFilter.TagMatch.ANY, null, null));
+    }
+
+    @Test
+    void tagMatchFrom_WithUnknownValue_ThrowsException() {
+        assertThat(ArticleFilter.TagMatch.from(null)).isEqualTo(ArticleFilter.TagMatch.ALL);
+        assertThat(ArticleFilter.TagMatch.from("ANY")).isEqualTo(ArticleFilter.TagMatch.ANY);
+        assertThrows(RealWorldException.class, () -> ArticleFilter.TagMatch.from("some"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.model.ArticleFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleCountCacheTest {
+
+    @Test
+    void get_CountsOncePerFilter() {
+        ArticleCountCache cache = new ArticleCountCache(new ArticleCountCacheProperties());
+        AtomicInteger counts = new AtomicInteger();
+
+        cache.get(ArticleFilter.tag("java"), filter -> (long) counts.incrementAndGet());
+        long total = cache.get(ArticleFilter.tag("java"), filter -> (long) counts.incrementAndGet());
+
+        assertThat(total).isEqualTo(1);
+        assertThat(counts).hasValue(1);
+    }
+
+    @Test
+    void invalidateFavorited_KeepsOtherFilters() {
+        ArticleCountCache cache = new ArticleCountCache(new ArticleCountCacheProperties());
+        cache.put(ArticleFilter.favoritedBy("reader"), 3);
+        cache.put(ArticleFilter.tag("java"), 7);
+
+        cache.invalidateFavorited();
+
+        assertThat(cache.get(ArticleFilter.favoritedBy("reader"), filter -> 4L)).isEqualTo(4);
+        assertThat(cache.get(ArticleFilter.tag("java"), filter -> 8L)).isEqualTo(7);
+    }
+
+    @Test
+    void invalidateAll_WithApproximateMode_KeepsLargeTotals() {
+        ArticleCountCacheProperties properties = new ArticleCountCacheProperties();
+        properties.setApproximateAbove(1_000);
+        ArticleCountCache cache = new ArticleCountCache(properties);
+        cache.put(ArticleFilter.all(), 250_000);
+        cache.put(ArticleFilter.author("author"), 12);
+
+        cache.invalidateAll();
+
+        assertThat(cache.get(ArticleFilter.all(), filter -> 250_001L)).isEqualTo(250_000);
+        assertThat(cache.get(ArticleFilter.author("author"), filter -> 13L)).isEqualTo(13);
+    }
+}
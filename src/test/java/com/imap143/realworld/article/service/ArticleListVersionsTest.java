@@ -0,0 +1,79 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.tag.model.Tag;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.service.ProfileChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleListVersionsTest {
+
+    private final ArticleListVersions versions = new ArticleListVersions();
+    private final Article article = new Article(User.of("author@test.com", "author", null),
+            new ArticleContent("Title", "description", "body", new HashSet<>(Set.of(new Tag("java")))));
+
+    @Test
+    void etag_IsWeakAndStableWithoutChanges() {
+        String etag = versions.etag(ArticleFilter.tag("java"));
+
+        assertThat(etag).startsWith("W/\"");
+        assertThat(versions.etag(ArticleFilter.tag("java"))).isEqualTo(etag);
+    }
+
+    @Test
+    void articleChanged_BumpsOnlyFiltersThatCanContainIt() {
+        String all = versions.etag(ArticleFilter.all());
+        String java = versions.etag(ArticleFilter.tag("java"));
+        String author = versions.etag(ArticleFilter.author("author"));
+        String kotlin = versions.etag(ArticleFilter.tag("kotlin"));
+        String favorited = versions.etag(ArticleFilter.favoritedBy("reader"));
+
+        versions.articleChanged(article, false);
+
+        assertThat(versions.etag(ArticleFilter.all())).isNotEqualTo(all);
+        assertThat(versions.etag(ArticleFilter.tag("java"))).isNotEqualTo(java);
+        assertThat(versions.etag(ArticleFilter.author("author"))).isNotEqualTo(author);
+        assertThat(versions.etag(ArticleFilter.tag("kotlin"))).isEqualTo(kotlin);
+        assertThat(versions.etag(ArticleFilter.favoritedBy("reader"))).isEqualTo(favorited);
+    }
+
+    @Test
+    void articleChanged_WithFavoritedListsAffected_BumpsEveryFavoritedFilter() {
+        String favorited = versions.etag(ArticleFilter.favoritedBy("reader"));
+
+        versions.articleChanged(article, true);
+
+        assertThat(versions.etag(ArticleFilter.favoritedBy("reader"))).isNotEqualTo(favorited);
+    }
+
+    @Test
+    void etag_WithCombinedFilter_FollowsNewestCriterion() {
+        ArticleFilter combined = ArticleFilter.of(List.of("java", "kotlin"), ArticleFilter.TagMatch.ANY, "someone", null);
+        String before = versions.etag(combined);
+
+        versions.articleChanged(article, false);
+
+        assertThat(versions.etag(combined)).isNotEqualTo(before);
+        assertThat(versions.etag(combined)).isEqualTo(versions.etag(ArticleFilter.tag("java")));
+    }
+
+    @Test
+    void onProfileChanged_BumpsEveryFilter() {
+        versions.articleChanged(article, true);
+        String java = versions.etag(ArticleFilter.tag("java"));
+        String kotlin = versions.etag(ArticleFilter.tag("kotlin"));
+
+        versions.onProfileChanged(new ProfileChangedEvent(1L));
+
+        assertThat(versions.etag(ArticleFilter.tag("java"))).isNotEqualTo(java);
+        assertThat(versions.etag(ArticleFilter.tag("kotlin"))).isNotEqualTo(kotlin);
+    }
+}
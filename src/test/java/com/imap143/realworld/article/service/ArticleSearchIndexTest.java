@@ -0,0 +1,115 @@
+package com.imap143.realworld.article.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleSearchIndexTest {
+
+    private final ArticleSearchIndex index = new ArticleSearchIndex();
+
+    private void put(long articleId, String title, String description, String body) {
+        index.put(ArticleSearchIndex.analyze(articleId, title, description, body));
+    }
+
+    @Test
+    void search_RanksTitleMatchAboveBodyMatch() {
+        put(1L, "Cooking basics", "A primer", "Dragons appear only here");
+        put(2L, "Training dragons", "A primer", "Mostly about patience");
+        put(3L, "Gardening", "A primer", "Nothing relevant");
+
+        ArticleSearchIndex.Hits hits = index.search("dragons", 10);
+
+        assertThat(hits.articleIds()).containsExactly(2L, 1L);
+        assertThat(hits.total()).isEqualTo(2);
+    }
+
+    @Test
+    void search_RareTermOutweighsCommonOne() {
+        put(1L, "Jacobian matrices", "math", "common");
+        put(2L, "Common ground", "common", "common");
+        put(3L, "Common sense", "common", "common");
+
+        assertThat(index.search("common jacobian", 1).articleIds()).containsExactly(1L);
+        assertThat(index.search("common jacobian", 1).total()).isEqualTo(3);
+    }
+
+    @Test
+    void search_IgnoresCaseAndPunctuation() {
+        put(1L, "How to train your Dragon!", "Ever wonder how?", "It takes a Jacobian");
+
+        assertThat(index.search("DRAGON, jacobian", 10).articleIds()).containsExactly(1L);
+        assertThat(index.search("  ?! ", 10)).isEqualTo(ArticleSearchIndex.Hits.NONE);
+    }
+
+    @Test
+    void put_SameArticleAgain_ReplacesItsText() {
+        put(1L, "Old title", "description", "body");
+        put(1L, "New title", "description", "body");
+
+        assertThat(index.search("old", 10).articleIds()).isEmpty();
+        assertThat(index.search("new", 10).articleIds()).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_DropsArticleFromResults() {
+        put(1L, "Dragons", "description", "body");
+        put(2L, "Dragons again", "description", "body");
+
+        index.remove(1L);
+
+        ArticleSearchIndex.Hits hits = index.search("dragons", 10);
+        assertThat(hits.articleIds()).containsExactly(2L);
+        assertThat(hits.total()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_KeepsChangesMadeWhileRunning() {
+        put(1L, "Before rebuild", "description", "body");
+        ArticleSearchIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(ArticleSearchIndex.analyze(1L, "Before rebuild", "description", "body"));
+        rebuild.add(ArticleSearchIndex.analyze(2L, "Deleted meanwhile", "description", "body"));
+        put(3L, "Created meanwhile", "description", "body");
+        index.remove(2L);
+
+        assertThat(index.search("before", 10).articleIds()).containsExactly(1L);
+
+        rebuild.install();
+
+        assertThat(index.search("before", 10).articleIds()).containsExactly(1L);
+        assertThat(index.search("meanwhile", 10).articleIds()).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void search_ManyArticles_ReturnsBestLimitAndExactTotal() {
+        for (long id = 1; id <= 5_000; id++) {
+            put(id, id % 500 == 0 ? "Needle" : "Haystack", "description", "needle " + id);
+        }
+
+        ArticleSearchIndex.Hits hits = index.search("needle", 10);
+
+        assertThat(hits.total()).isEqualTo(5_000);
+        assertThat(hits.articleIds()).containsExactly(5000L, 4500L, 4000L, 3500L, 3000L, 2500L, 2000L, 1500L, 1000L, 500L);
+    }
+
+    @Test
+    void postingList_RoundTripsLargeGapsAndFrequencies() {
+        PostingList postings = new PostingList();
+        postings.add(0, 1);
+        postings.add(300, 70_000);
+        postings.add(Integer.MAX_VALUE - 1, 2);
+
+        PostingList.Cursor cursor = postings.cursor();
+
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.document()).isZero();
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.document()).isEqualTo(300);
+        assertThat(cursor.frequency()).isEqualTo(70_000);
+        assertThat(cursor.next()).isTrue();
+        assertThat(cursor.document()).isEqualTo(Integer.MAX_VALUE - 1);
+        assertThat(cursor.next()).isFalse();
+    }
+}
@@ -35,6 +35,27 @@ class ArticleServiceTest {
     @Mock
     private ArticleRepository articleRepository;
 
+    @Mock
+    private ArticleCountCache articleCountCache;
+
+    @Mock
+    private ArticleViewCache articleViewCache;
+
+    @Mock
+    private ArticleListVersions articleListVersions;
+
+    @Mock
+    private FeedReader feedReader;
+
+    @Mock
+    private FeedFanout feedFanout;
+
+    @Mock
+    private AuthorRecentPosts authorRecentPosts;
+
+    @Mock
+    private ArticleSearch articleSearch;
+
     @InjectMocks
     private ArticleService articleService;
 
@@ -70,5 +91,6 @@ class ArticleServiceTest {
         assertThat(createdArticle.getContent().getTitle()).isEqualTo("Test Title");
         assertThat(createdArticle.getAuthor()).isEqualTo(author);
         verify(articleRepository).save(any(Article.class));
+        verify(feedFanout).articleCreated(expectedArticle.getId(), authorId);
     }
 }
\ No newline at end of file
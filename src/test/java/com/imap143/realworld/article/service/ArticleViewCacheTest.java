@@ -0,0 +1,78 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.dto.RenderedArticleResponse;
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.service.ProfileChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleViewCacheTest {
+
+    private final ArticleViewCache cache = new ArticleViewCache(new ArticleViewCacheProperties(),
+            Jackson2ObjectMapperBuilder.json().build());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_LoadsOncePerSlug() {
+        Optional<RenderedArticleResponse> first = cache.get("slug", this::load);
+        Optional<RenderedArticleResponse> second = cache.get("slug", this::load);
+
+        assertThat(second).containsSame(first.orElseThrow());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_RendersWrappedJsonWithContentEtag() {
+        RenderedArticleResponse view = cache.get("slug", this::load).orElseThrow();
+
+        assertThat(new String(view.getJson(), StandardCharsets.UTF_8)).startsWith("{\"article\":{");
+        assertThat(view.getEtag()).isEqualTo(DigestUtils.md5DigestAsHex(view.getJson()));
+    }
+
+    @Test
+    void get_WithMissingArticle_DoesNotCacheAbsence() {
+        assertThat(cache.get("missing", slug -> Optional.empty())).isEmpty();
+
+        assertThat(cache.get("missing", this::load)).isPresent();
+    }
+
+    @Test
+    void invalidate_ReloadsOnlyThatSlug() {
+        cache.get("slug", this::load);
+        cache.get("other", this::load);
+
+        cache.invalidate("slug");
+        cache.get("slug", this::load);
+        cache.get("other", this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void onProfileChanged_DropsViewsOfThatAuthor() {
+        cache.get("slug", this::load);
+
+        cache.onProfileChanged(new ProfileChangedEvent(1L));
+        cache.get("slug", this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<Article> load(String slug) {
+        loads.incrementAndGet();
+        User author = User.of("author@test.com", "author", null);
+        ReflectionTestUtils.setField(author, "id", 1L);
+        return Optional.of(new Article(author, new ArticleContent(slug, "description", "body", new HashSet<>())));
+    }
+}
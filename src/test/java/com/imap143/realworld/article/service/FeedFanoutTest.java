@@ -0,0 +1,92 @@
+package com.imap143.realworld.article.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class FeedFanoutTest {
+
+    private final FeedTimelines feedTimelines = mock(FeedTimelines.class);
+    private final FeedFanout fanout = new FeedFanout(feedTimelines, inlineProperties());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void articleCreated_OutsideTransaction_FansOutImmediately() {
+        fanout.articleCreated(7L, 3L);
+
+        verify(feedTimelines).fanOut(7L, 3L);
+    }
+
+    @Test
+    void articleCreated_InTransaction_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        fanout.articleCreated(7L, 3L);
+        verify(feedTimelines, never()).fanOut(7L, 3L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(feedTimelines).fanOut(7L, 3L);
+    }
+
+    @Test
+    void articleCreated_RolledBack_NeverFansOut() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        fanout.articleCreated(7L, 3L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(feedTimelines, never()).fanOut(7L, 3L);
+    }
+
+    @Test
+    void shutdown_WaitsForQueuedFanOuts() throws InterruptedException {
+        FeedFanout pooled = new FeedFanout(feedTimelines, pooledProperties());
+        given(feedTimelines.fanOut(anyLong(), anyLong())).willAnswer(invocation -> {
+            Thread.sleep(50);
+            return 1;
+        });
+        pooled.articleCreated(7L, 3L);
+        pooled.articleCreated(8L, 3L);
+
+        pooled.shutdown();
+
+        verify(feedTimelines).fanOut(7L, 3L);
+        verify(feedTimelines).fanOut(8L, 3L);
+    }
+
+    @Test
+    void articleCreated_AfterShutdown_LeavesArticleToRepairSweep() throws InterruptedException {
+        FeedFanout pooled = new FeedFanout(feedTimelines, pooledProperties());
+        pooled.shutdown();
+
+        pooled.articleCreated(7L, 3L);
+
+        verify(feedTimelines, never()).fanOut(7L, 3L);
+    }
+
+    private static FeedTimelineProperties pooledProperties() {
+        FeedTimelineProperties properties = new FeedTimelineProperties();
+        properties.setFanoutPoolSize(1);
+        return properties;
+    }
+
+    private static FeedTimelineProperties inlineProperties() {
+        FeedTimelineProperties properties = new FeedTimelineProperties();
+        properties.setFanoutPoolSize(0);
+        return properties;
+    }
+}
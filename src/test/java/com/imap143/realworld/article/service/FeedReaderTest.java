@@ -0,0 +1,181 @@
+package com.imap143.realworld.article.service;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.FeedItem;
+import com.imap143.realworld.article.repository.ArticleRepository;
+import com.imap143.realworld.article.repository.FeedRepository;
+import com.imap143.realworld.article.repository.OffsetPageRequest;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.service.FollowGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FeedReaderTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private FeedRepository feedRepository;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private FollowGraph followGraph;
+
+    @Mock
+    private AuthorRecentPosts authorRecentPosts;
+
+    private final CelebrityAuthors celebrityAuthors = new CelebrityAuthors(new FeedTimelineProperties());
+
+    @Test
+    void merge_InterleavesSourcesNewestFirst() {
+        List<FeedItem> merged = FeedReader.merge(List.of(
+                List.of(item(9, 9), item(5, 5), item(1, 1)),
+                List.of(item(8, 8), item(2, 2)),
+                List.of(item(7, 7))), 10);
+
+        assertThat(merged).extracting(FeedItem::articleId).containsExactly(9L, 8L, 7L, 5L, 2L, 1L);
+    }
+
+    @Test
+    void merge_StopsAtLimitAndDropsDuplicates() {
+        List<FeedItem> merged = FeedReader.merge(List.of(
+                List.of(item(9, 9), item(6, 6), item(3, 3)),
+                List.of(item(6, 6), item(4, 4))), 3);
+
+        assertThat(merged).extracting(FeedItem::articleId).containsExactly(9L, 6L, 4L);
+    }
+
+    @Test
+    void scroll_WithoutFollowedCelebrities_ReadsTimelineOnly() {
+        FeedReader reader = reader();
+        celebrityAuthors.replace(Set.of(42L));
+        given(followGraph.followedAmong(eq(1L), anyCollection())).willReturn(Set.of());
+
+        reader.scroll(1L, ArticleCursor.FIRST, 20);
+
+        verify(feedRepository).findTimelineAfter(eq(1L), any(), anyLong(), eq(Limit.of(20)));
+        verify(articleRepository, never()).findWithAuthorByIdIn(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scroll_WithFollowedCelebrity_MergesRecentPostsIntoTimeline() {
+        FeedReader reader = reader();
+        celebrityAuthors.replace(Set.of(42L));
+        given(followGraph.followedAmong(eq(1L), anyCollection())).willReturn(Set.of(42L));
+        given(feedRepository.findTimelineItemsAfter(eq(1L), any(), anyLong(), eq(Limit.of(3))))
+                .willReturn(List.of(item(10, 1), item(8, 2)));
+        given(authorRecentPosts.get(eq(42L), any(LongFunction.class)))
+                .willReturn(List.of(item(9, 3), item(7, 4)));
+        given(articleRepository.findWithAuthorByIdIn(List.of(1L, 3L, 2L)))
+                .willReturn(List.of(article(2), article(1), article(3)));
+
+        List<Article> feed = reader.scroll(1L, ArticleCursor.FIRST, 3);
+
+        assertThat(feed).extracting(Article::getId).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scroll_TimelineEndingEarly_ContinuesFromFollowGraphInsteadOfCelebrityPosts() {
+        FeedReader reader = reader();
+        celebrityAuthors.replace(Set.of(42L));
+        given(followGraph.followedAmong(eq(1L), anyCollection())).willReturn(Set.of(42L));
+        given(feedRepository.findTimelineItemsAfter(eq(1L), any(), anyLong(), eq(Limit.of(3))))
+                .willReturn(List.of(item(10, 1)));
+        given(authorRecentPosts.get(eq(42L), any(LongFunction.class)))
+                .willReturn(List.of(item(9, 3), item(5, 4)));
+        given(articleRepository.findWithAuthorByIdIn(List.of(1L))).willReturn(List.of(article(10, 1)));
+        given(articleRepository.findFollowedByAfter(1L, NOW.plusMinutes(10), 1L, new OffsetPageRequest(0, 2)))
+                .willReturn(List.of(article(9, 3), article(7, 2)));
+
+        List<Article> feed = reader.scroll(1L, ArticleCursor.FIRST, 3);
+
+        assertThat(feed).extracting(Article::getId).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void page_WithFollowedCelebrity_StopsMergeAtEndOfTimelineAndCountsEachArticleOnce() {
+        FeedReader reader = reader();
+        celebrityAuthors.replace(Set.of(42L));
+        given(followGraph.followedAmong(eq(1L), anyCollection())).willReturn(Set.of(42L));
+        given(feedRepository.findTimelineItemsAfter(eq(1L), any(), anyLong(), eq(Limit.of(3))))
+                .willReturn(List.of(item(10, 1)));
+        given(authorRecentPosts.get(eq(42L), any(LongFunction.class)))
+                .willReturn(List.of(item(9, 3), item(5, 4)));
+        given(articleRepository.findWithAuthorByIdIn(List.of(1L))).willReturn(List.of(article(10, 1)));
+        given(articleRepository.findFollowedByAfter(1L, NOW.plusMinutes(10), 1L, new OffsetPageRequest(0, 2)))
+                .willReturn(List.of(article(9, 3), article(7, 2)));
+        given(articleRepository.countFollowedBy(1L)).willReturn(7L);
+
+        Page<Article> page = reader.page(1L, new OffsetPageRequest(0, 3));
+
+        assertThat(page.getContent()).extracting(Article::getId).containsExactly(1L, 3L, 2L);
+        assertThat(page.getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    void page_PastEndOfTimeline_SkipsWhatTheTimelineCovered() {
+        FeedReader reader = reader();
+        OffsetPageRequest pageable = new OffsetPageRequest(5, 2);
+        given(feedRepository.findTimeline(1L, pageable)).willReturn(List.of());
+        given(feedRepository.countTimeline(1L)).willReturn(3L);
+        given(feedRepository.findTimelineEnd(1L, Limit.of(1))).willReturn(List.of(item(6, 6)));
+        given(articleRepository.findFollowedByAfter(1L, NOW.plusMinutes(6), 6L, new OffsetPageRequest(2, 2)))
+                .willReturn(List.of(article(3, 3)));
+
+        Page<Article> page = reader.page(1L, pageable);
+
+        assertThat(page.getContent()).extracting(Article::getId).containsExactly(3L);
+        assertThat(page.getTotalElements()).isEqualTo(6);
+    }
+
+    private FeedReader reader() {
+        FeedTimelineProperties properties = new FeedTimelineProperties();
+        return new FeedReader(feedRepository, articleRepository, followGraph, celebrityAuthors,
+                authorRecentPosts, new FeedTotals(properties), properties);
+    }
+
+    private static FeedItem item(int minutes, long articleId) {
+        return new FeedItem(NOW.plusMinutes(minutes), articleId);
+    }
+
+    private static Article article(long id) {
+        Article article = new Article(User.of("author@test.com", "author", null),
+                new ArticleContent("Article " + id, "description", "body", new HashSet<>()));
+        ReflectionTestUtils.setField(article, "id", id);
+        return article;
+    }
+
+    private static Article article(int minutes, long id) {
+        Article article = article(id);
+        ReflectionTestUtils.setField(article, "createdAt", NOW.plusMinutes(minutes));
+        return article;
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.imap143.realworld.article.dto.ArticlePostRequestDTO;
 import com.imap143.realworld.article.dto.ArticleUpdateRequestDTO;
 import com.imap143.realworld.article.dto.CommentPostRequestDTO;
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.repository.ArticleRepository;
+import com.imap143.realworld.article.service.ArticleSearchIndex;
 import com.imap143.realworld.exception.RealWorldException;
 import com.imap143.realworld.tag.model.Tag;
 import com.imap143.realworld.user.dto.UserSignUpRequestDto;
@@ -14,9 +17,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -26,11 +33,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.not;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -43,6 +54,12 @@ class ArticleIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
+
     @Test
     void createAndGetArticle() throws Exception {
         // 1. Create a user
@@ -140,7 +157,7 @@ class ArticleIntegrationTest {
     void deleteArticle() throws Exception {
         // 1. Register a user
         UserSignUpRequestDto signUpRequest = new UserSignUpRequestDto("author@test.com", "author", "password123");
-        String signUpResponse = mockMvc.perform(post("/users")
+        String signUpResponse = performAsync(post("/users")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(signUpRequest)))
@@ -189,7 +206,7 @@ class ArticleIntegrationTest {
     void createComment() throws Exception {
         // 1. Create a user
         UserSignUpRequestDto signUpRequest = new UserSignUpRequestDto("author@test.com", "author", "password123");
-        String signUpResponse = mockMvc.perform(post("/users")
+        String signUpResponse = performAsync(post("/users")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(signUpRequest)))
@@ -233,7 +250,7 @@ class ArticleIntegrationTest {
     void deleteComment() throws Exception {
         // 1. Register user and get token
         UserSignUpRequestDto signUpRequest = new UserSignUpRequestDto("author@test.com", "author", "password123");
-        String signUpResponse = mockMvc.perform(post("/users")
+        String signUpResponse = performAsync(post("/users")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(signUpRequest)))
@@ -287,7 +304,7 @@ class ArticleIntegrationTest {
     void deleteComment_NotAuthor() throws Exception {
         // 1. Register author and get token
         UserSignUpRequestDto authorSignUp = new UserSignUpRequestDto("author@test.com", "author", "password123");
-        String authorResponse = mockMvc.perform(post("/users")
+        String authorResponse = performAsync(post("/users")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(authorSignUp)))
@@ -300,7 +317,7 @@ class ArticleIntegrationTest {
 
         // 2. Register another user
         UserSignUpRequestDto otherSignUp = new UserSignUpRequestDto("other@test.com", "other", "password123");
-        String otherResponse = mockMvc.perform(post("/users")
+        String otherResponse = performAsync(post("/users")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(otherSignUp)))
@@ -395,6 +412,46 @@ class ArticleIntegrationTest {
                 .andExpect(jsonPath("$.articles[0].slug").value(slug));
     }
 
+    @Test
+    void getArticlesWithCombinedFilters_AppliesEveryCriterion() throws Exception {
+        String author1Token = createUserAndGetToken("author1@test.com", "author1", "password123");
+        String author2Token = createUserAndGetToken("author2@test.com", "author2", "password123");
+        createArticle(author1Token, "First Article", "Description 1", "Body 1", Set.of("tag1", "tag2"));
+        createArticle(author1Token, "Second Article", "Description 2", "Body 2", Set.of("tag2", "tag3"));
+        createArticle(author2Token, "Third Article", "Description 3", "Body 3", Set.of("tag1", "tag3"));
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "tag1")
+                        .param("author", "author2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(1))
+                .andExpect(jsonPath("$.articles[0].slug").value("third-article"));
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "tag1", "tag2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(1))
+                .andExpect(jsonPath("$.articles[0].slug").value("first-article"));
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "tag1", "tag2")
+                        .param("tagMatch", "any"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(3));
+
+        mockMvc.perform(post("/articles/second-article/favorite")
+                        .header("Authorization", "Token " + author2Token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "tag3")
+                        .param("favorited", "author2")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(1))
+                .andExpect(jsonPath("$.articles[0].slug").value("second-article"));
+    }
+
     @Test
     void favoriteAndUnfavoriteArticle() throws Exception {
         // 1. Create two users: author and reader
@@ -430,6 +487,349 @@ class ArticleIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getArticle_AfterFavoriteAndUpdate_ServesFreshView() throws Exception {
+        String authorToken = createUserAndGetToken("author@test.com", "author", "password123");
+        String readerToken = createUserAndGetToken("reader@test.com", "reader", "password123");
+        createArticle(authorToken, "Cached Article", "Description", "Body", Set.of("cache"));
+
+        mockMvc.perform(get("/articles/cached-article"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.favoritesCount").value(0));
+
+        mockMvc.perform(post("/articles/cached-article/favorite")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/articles/cached-article"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.favoritesCount").value(1));
+
+        mockMvc.perform(put("/articles/cached-article")
+                        .header("Authorization", "Token " + authorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ArticleUpdateRequestDTO("Renamed Article", null, null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/articles/cached-article"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/articles/renamed-article"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.title").value("Renamed Article"));
+    }
+
+    @Test
+    void getArticle_WithMatchingEtag_ReturnsNotModified() throws Exception {
+        String authorToken = createUserAndGetToken("author@test.com", "author", "password123");
+        String readerToken = createUserAndGetToken("reader@test.com", "reader", "password123");
+        createArticle(authorToken, "Etag Article", "Description", "Body", Set.of("etag"));
+
+        String etag = mockMvc.perform(get("/articles/etag-article"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.slug").value("etag-article"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/articles/etag-article")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/articles/etag-article/favorite")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/articles/etag-article")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.article.favoritesCount").value(1));
+    }
+
+    @Test
+    void getArticles_WithMatchingEtag_ReturnsNotModifiedUntilArticleChanges() throws Exception {
+        String token = createUserAndGetToken("author@test.com", "author", "password123");
+        createArticle(token, "Polled Article", "Description", "Body", Set.of("polled"));
+
+        String etag = mockMvc.perform(get("/articles")
+                        .param("tag", "polled"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "polled")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        createArticle(token, "Unrelated Article", "Description", "Body", Set.of("other"));
+        mockMvc.perform(get("/articles")
+                        .param("tag", "polled")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        createArticle(token, "Second Polled Article", "Description", "Body", Set.of("polled"));
+        mockMvc.perform(get("/articles")
+                        .param("tag", "polled")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(2));
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "polled")
+                        .header("If-None-Match", etag)
+                        .header("Authorization", "Token " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void getArticlesWithCursor_WalksEveryArticleNewestFirst() throws Exception {
+        String token = createUserAndGetToken("author@test.com", "author", "password123");
+        List<String> created = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            createArticle(token, "Article " + i, "Description", "Body", Set.of("cursor"));
+            created.add(0, "article-" + i);
+        }
+
+        List<String> walked = new ArrayList<>();
+        String cursor = "";
+        do {
+            String response = mockMvc.perform(get("/articles")
+                            .param("tag", "cursor")
+                            .param("cursor", cursor)
+                            .param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            walked.addAll(JsonPath.read(response, "$.articles[*].slug"));
+            cursor = objectMapper.readTree(response).path("nextCursor").asText(null);
+        } while (cursor != null);
+
+        assertEquals(created, walked);
+    }
+
+    @Test
+    void getArticlesWithInvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/articles")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getArticlesWithInvalidLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/articles")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getArticlesWithLargeLimit_CapsOnlyCursorPages() throws Exception {
+        mockMvc.perform(get("/articles")
+                        .param("limit", "500"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/articles")
+                        .param("cursor", "")
+                        .param("limit", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getArticlesWithOffset_StartsAtExactOffset() throws Exception {
+        String token = createUserAndGetToken("author@test.com", "author", "password123");
+        for (int i = 1; i <= 3; i++) {
+            createArticle(token, "Article " + i, "Description", "Body", Set.of("offset"));
+        }
+
+        mockMvc.perform(get("/articles")
+                        .param("offset", "1")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(2))
+                .andExpect(jsonPath("$.articlesCount").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getArticlesWithSummaryView_OmitsBody() throws Exception {
+        String token = createUserAndGetToken("author@test.com", "author", "password123");
+        createArticle(token, "Summary Article", "Description", "Body", Set.of("summary"));
+
+        mockMvc.perform(get("/articles")
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles[0].slug").value("summary-article"))
+                .andExpect(jsonPath("$.articles[0].tags", containsInAnyOrder("summary")))
+                .andExpect(jsonPath("$.articles[0].author.username").value("author"))
+                .andExpect(jsonPath("$.articles[0].body").doesNotExist());
+
+        mockMvc.perform(get("/articles"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles[0].body").value("Body"));
+    }
+
+    @Test
+    void getArticlesWithToken_PersonalizesFlags() throws Exception {
+        String authorToken = createUserAndGetToken("author@test.com", "author", "password123");
+        String readerToken = createUserAndGetToken("reader@test.com", "reader", "password123");
+        createArticle(authorToken, "Liked Article", "Description", "Body", Set.of("flags"));
+
+        mockMvc.perform(post("/articles/liked-article/favorite")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/profiles/author/follow")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "flags")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles[0].favorited").value(true))
+                .andExpect(jsonPath("$.articles[0].author.following").value(true));
+
+        mockMvc.perform(get("/articles")
+                        .param("tag", "flags"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles[0].favorited").value(false))
+                .andExpect(jsonPath("$.articles[0].author.following").value(false));
+    }
+
+    @Test
+    void getFeed_AfterFollowAndUnfollow_BackfillsAndPrunesTimeline() throws Exception {
+        String authorToken = createUserAndGetToken("author@test.com", "author", "password123");
+        String otherToken = createUserAndGetToken("other@test.com", "other", "password123");
+        String readerToken = createUserAndGetToken("reader@test.com", "reader", "password123");
+        createArticle(authorToken, "First Post", "Description", "Body", Set.of("feed"));
+        createArticle(authorToken, "Second Post", "Description", "Body", Set.of("feed"));
+        createArticle(otherToken, "Unfollowed Post", "Description", "Body", Set.of("feed"));
+
+        mockMvc.perform(put("/profiles/author/follow")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/feed")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(2))
+                .andExpect(jsonPath("$.articles[0].title").value("Second Post"))
+                .andExpect(jsonPath("$.articles[1].title").value("First Post"))
+                .andExpect(jsonPath("$.articles[0].author.following").value(true));
+        // Cursor pages report the whole feed, not the page.
+        mockMvc.perform(get("/feed")
+                        .header("Authorization", "Token " + readerToken)
+                        .param("cursor", "")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(1))
+                .andExpect(jsonPath("$.articlesCount").value(2));
+
+        mockMvc.perform(delete("/articles/first-post")
+                        .with(csrf())
+                        .header("Authorization", "Token " + authorToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/feed")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(jsonPath("$.articlesCount").value(1));
+
+        mockMvc.perform(delete("/profiles/author/follow")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/feed")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articlesCount").value(0));
+    }
+
+    @Test
+    void searchArticles_RanksMatchesBestFirst() throws Exception {
+        String token = createUserAndGetToken("author@test.com", "author", "password123");
+        createArticle(token, "Taming wyverns", "A field guide", "Start small", Set.of("search"));
+        createArticle(token, "Cooking outdoors", "Recipes", "Keep wyverns away from the fire", Set.of("search"));
+        createArticle(token, "Gardening", "Plants", "Soil and water", Set.of("search"));
+        // The index is updated after commit, which a rolled-back test never reaches.
+        List<Article> articles = List.of("taming-wyverns", "cooking-outdoors", "gardening").stream()
+                .map(slug -> articleRepository.findBySlug(slug).orElseThrow())
+                .toList();
+        articles.forEach(article -> articleSearchIndex.put(ArticleSearchIndex.analyze(article.getId(),
+                article.getContent().getTitle(), article.getContent().getDescription(), article.getContent().getBody())));
+
+        try {
+            mockMvc.perform(get("/articles/search")
+                            .param("q", "Wyverns"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.articlesCount").value(2))
+                    .andExpect(jsonPath("$.articles[0].title").value("Taming wyverns"))
+                    .andExpect(jsonPath("$.articles[1].title").value("Cooking outdoors"))
+                    .andExpect(jsonPath("$.articles[0].author.username").value("author"));
+
+            mockMvc.perform(get("/articles/search")
+                            .param("q", "wyverns")
+                            .param("offset", "1")
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.articlesCount").value(2))
+                    .andExpect(jsonPath("$.articles.length()").value(1))
+                    .andExpect(jsonPath("$.articles[0].title").value("Cooking outdoors"));
+        } finally {
+            articles.forEach(article -> articleSearchIndex.remove(article.getId()));
+        }
+    }
+
+    @Test
+    void searchArticlesWithToken_PersonalizesFlags() throws Exception {
+        String authorToken = createUserAndGetToken("author@test.com", "author", "password123");
+        String readerToken = createUserAndGetToken("reader@test.com", "reader", "password123");
+        createArticle(authorToken, "Taming wyverns", "A field guide", "Start small", Set.of("search"));
+        mockMvc.perform(post("/articles/taming-wyverns/favorite")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/profiles/author/follow")
+                        .header("Authorization", "Token " + readerToken))
+                .andExpect(status().isOk());
+        Article article = articleRepository.findBySlug("taming-wyverns").orElseThrow();
+        articleSearchIndex.put(ArticleSearchIndex.analyze(article.getId(), article.getContent().getTitle(),
+                article.getContent().getDescription(), article.getContent().getBody()));
+
+        try {
+            mockMvc.perform(get("/articles/search")
+                            .param("q", "wyverns")
+                            .header("Authorization", "Token " + readerToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.articles[0].favorited").value(true))
+                    .andExpect(jsonPath("$.articles[0].author.following").value(true));
+
+            mockMvc.perform(get("/articles/search")
+                            .param("q", "wyverns"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.articles[0].favorited").value(false))
+                    .andExpect(jsonPath("$.articles[0].author.following").value(false));
+        } finally {
+            articleSearchIndex.remove(article.getId());
+        }
+    }
+
+    @Test
+    void createArticleTitledSearch_CanBeReadBack() throws Exception {
+        String token = createUserAndGetToken("author@test.com", "author", "password123");
+        createArticle(token, "Search", "Description", "Body", Set.of("search"));
+
+        mockMvc.perform(get("/articles/search-article"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.article.title").value("Search"));
+    }
+
+    @Test
+    void searchArticlesWithoutQuery_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/articles/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getArticlesWithUnknownView_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/articles")
+                        .param("view", "compact"))
+                .andExpect(status().isBadRequest());
+    }
+
     private String extractToken(String response) {
         try {
             return objectMapper.readTree(response)
@@ -443,7 +843,7 @@ class ArticleIntegrationTest {
 
     private String createUserAndGetToken(String email, String username, String password) throws Exception {
         UserSignUpRequestDto signUpRequest = new UserSignUpRequestDto(email, username, password);
-        String response = mockMvc.perform(post("/users")
+        String response = performAsync(post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(signUpRequest)))
                 .andExpect(status().isOk())
@@ -464,4 +864,12 @@ class ArticleIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk());
     }
-} 
\ No newline at end of file
+
+    // Registration completes asynchronously, so its response arrives on the async dispatch.
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(asyncResult));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,233 @@
+package com.imap143.realworld.integration;
+
+import com.imap143.realworld.article.dto.MultiArticleResponseDTO;
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.model.ArticleFilter;
+import com.imap143.realworld.article.model.ArticleSummary;
+import com.imap143.realworld.article.model.ArticleView;
+import com.imap143.realworld.article.model.ArticleViewer;
+import com.imap143.realworld.article.service.ArticleService;
+import com.imap143.realworld.tag.model.Tag;
+import com.imap143.realworld.user.model.Password;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.user.service.FollowChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rendering a page must take the same small number of statements whatever the page size.
+@SpringBootTest
+@Transactional
+class ArticleListQueryCountTest {
+
+    private static final int ARTICLES = 30;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User reader;
+    private User latecomer;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            authors.add(userRepository.save(User.of("author" + i + "@test.com", "author" + i,
+                    Password.of("password", passwordEncoder))));
+        }
+        reader = userRepository.save(User.of("reader@test.com", "reader", Password.of("password", passwordEncoder)));
+        reader.getFollowing().addAll(authors);
+        // Follows from before timelines existed: user_follows rows but no user_feed rows.
+        latecomer = userRepository.save(User.of("latecomer@test.com", "latecomer", Password.of("password", passwordEncoder)));
+        latecomer.getFollowing().addAll(authors);
+
+        for (int i = 0; i < ARTICLES; i++) {
+            Set<Tag> tags = new HashSet<>(Set.of(new Tag("common"), new Tag("tag" + i)));
+            Article article = articleService.create(authors.get(i % authors.size()).getId(),
+                    new ArticleContent("Article " + i, "description", "body", tags));
+            articleService.addFavorite(article.getSlug(), reader.getId());
+            articleService.addFavorite(article.getSlug(), authors.get((i + 1) % authors.size()).getId());
+        }
+        entityManager.flush();
+        // Following through the collection skips ProfileService, so announce the follows the way it would.
+        authors.forEach(author -> eventPublisher.publishEvent(new FollowChangedEvent(reader.getId(), author.getId(), true)));
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void findSummaries_RendersPageInFixedNumberOfStatements(int pageSize) {
+        long statements = countStatements(() -> articleService.findSummaries(ArticleFilter.all(), PageRequest.of(0, pageSize), ArticleView.FULL), pageSize);
+
+        // page, count, tags
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void findSummariesByTag_RendersPageInFixedNumberOfStatements(int pageSize) {
+        long statements = countStatements(() -> articleService.findSummaries(ArticleFilter.tag("common"), PageRequest.of(0, pageSize), ArticleView.FULL), pageSize);
+
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void findSummariesByFavorited_RendersPageInFixedNumberOfStatements(int pageSize) {
+        long statements = countStatements(() -> articleService.findSummaries(ArticleFilter.favoritedBy("reader"), PageRequest.of(0, pageSize), ArticleView.FULL), pageSize);
+
+        assertThat(statements).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void findSummaries_LoadsNoEntities() {
+        statistics.clear();
+
+        Page<ArticleSummary> page = articleService.findSummaries(ArticleFilter.all(), PageRequest.of(0, 20), ArticleView.SUMMARY);
+
+        assertThat(page.getContent()).hasSize(20).allSatisfy(summary -> assertThat(summary.body()).isNull());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void scrollSummaries_WalksNewestFirst() {
+        List<ArticleSummary> first = articleService.scrollSummaries(ArticleFilter.tag("common"), ArticleCursor.FIRST, 5, ArticleView.SUMMARY);
+        List<ArticleSummary> second = articleService.scrollSummaries(ArticleFilter.tag("common"), ArticleCursor.after(first.get(4)), 5, ArticleView.SUMMARY);
+
+        assertThat(first).extracting(ArticleSummary::title)
+                .containsExactly("Article 29", "Article 28", "Article 27", "Article 26", "Article 25");
+        assertThat(second).extracting(ArticleSummary::title)
+                .containsExactly("Article 24", "Article 23", "Article 22", "Article 21", "Article 20");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void viewerOf_ResolvesFlagsInOneStatement(int pageSize) {
+        Page<ArticleSummary> page = articleService.findSummaries(ArticleFilter.all(), PageRequest.of(0, pageSize), ArticleView.SUMMARY);
+        statistics.clear();
+
+        ArticleViewer viewer = articleService.viewerOf(reader.getId(), page.getContent());
+        MultiArticleResponseDTO response = MultiArticleResponseDTO.ofSummaries(page, viewer);
+
+        // favorites only; follows come from FollowGraph
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(response.getArticles()).hasSize(pageSize).allSatisfy(article -> assertThat(article.isFavorited()).isTrue());
+        assertThat(viewer.followedAuthorIds()).hasSize(5);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void getFeed_RendersPageInFixedNumberOfStatements(int pageSize) {
+        statistics.clear();
+
+        MultiArticleResponseDTO response = MultiArticleResponseDTO.of(articleService.getFeed(reader.getId(), PageRequest.of(0, pageSize)), ArticleViewer.ANONYMOUS);
+
+        assertRendered(response, pageSize);
+        // timeline page with authors, count, tags batch
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void getFeed_WithoutTimeline_ReadsFollowGraphInFixedNumberOfStatements(int pageSize) {
+        statistics.clear();
+
+        MultiArticleResponseDTO response = MultiArticleResponseDTO.of(articleService.getFeed(latecomer.getId(), PageRequest.of(0, pageSize)), ArticleViewer.ANONYMOUS);
+
+        assertRendered(response, pageSize);
+        assertThat(response.getArticlesCount()).isEqualTo(ARTICLES);
+        // empty timeline page, follow-graph page with authors, count, tags batch
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void scrollFeed_PastTimeline_ContinuesFromFollowGraph() {
+        List<Article> first = articleService.scrollFeed(latecomer.getId(), ArticleCursor.FIRST, 20);
+        List<Article> second = articleService.scrollFeed(latecomer.getId(), ArticleCursor.after(first.get(19)), 20);
+
+        assertThat(first).hasSize(20);
+        assertThat(second).hasSize(ARTICLES - 20);
+        assertThat(first.get(0).getContent().getTitle()).isEqualTo("Article 29");
+    }
+
+    @Test
+    void findSummaries_RepeatedRequest_ServesTotalFromCache() {
+        articleService.findSummaries(ArticleFilter.all(), PageRequest.of(0, 5), ArticleView.FULL);
+        statistics.clear();
+
+        Page<ArticleSummary> page = articleService.findSummaries(ArticleFilter.all(), PageRequest.of(1, 5), ArticleView.SUMMARY);
+
+        assertThat(page.getTotalElements()).isEqualTo(ARTICLES);
+        // page, tags
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void create_InvalidatesCachedTotal() {
+        assertThat(totalOfFirstPage()).isEqualTo(ARTICLES);
+
+        articleService.create(reader.getId(), new ArticleContent("One more", "description", "body", new HashSet<>()));
+
+        assertThat(totalOfFirstPage()).isEqualTo(ARTICLES + 1);
+    }
+
+    private long totalOfFirstPage() {
+        return articleService.findSummaries(ArticleFilter.all(), PageRequest.of(0, 5), ArticleView.SUMMARY).getTotalElements();
+    }
+
+    private long countStatements(Supplier<Page<ArticleSummary>> query, int pageSize) {
+        statistics.clear();
+
+        assertRendered(MultiArticleResponseDTO.ofSummaries(query.get(), ArticleViewer.ANONYMOUS), pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertRendered(MultiArticleResponseDTO response, int pageSize) {
+        assertThat(response.getArticles()).hasSize(pageSize);
+        assertThat(response.getArticles()).allSatisfy(article -> {
+            assertThat(article.getTags()).hasSize(2);
+            assertThat(article.getFavoritesCount()).isEqualTo(2);
+        });
+    }
+}
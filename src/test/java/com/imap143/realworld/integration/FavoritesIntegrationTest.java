@@ -0,0 +1,126 @@
+package com.imap143.realworld.integration;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.article.service.ArticleService;
+import com.imap143.realworld.user.model.Password;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.exception.RealWorldException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class FavoritesIntegrationTest {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User author;
+    private User reader;
+    private String slug;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        author = userRepository.save(User.of("author@test.com", "author", Password.of("password", passwordEncoder)));
+        reader = userRepository.save(User.of("reader@test.com", "reader", Password.of("password", passwordEncoder)));
+        slug = articleService.create(author.getId(),
+                new ArticleContent("Counted article", "description", "body", new HashSet<>())).getSlug();
+    }
+
+    @Test
+    void addFavoriteAndUnFavorite_MaintainStoredCount() {
+        assertThat(articleService.addFavorite(slug, reader.getId()).getFavoritesCount()).isEqualTo(1);
+        assertThat(articleService.addFavorite(slug, author.getId()).getFavoritesCount()).isEqualTo(2);
+        assertThat(storedFavoritesCount()).isEqualTo(2);
+
+        assertThat(articleService.unFavorite(slug, reader.getId()).getFavoritesCount()).isEqualTo(1);
+        assertThat(storedFavoritesCount()).isEqualTo(1);
+    }
+
+    @Test
+    void addFavorite_Twice_CountsOnce() {
+        articleService.addFavorite(slug, reader.getId());
+
+        assertThrows(RealWorldException.class, () -> articleService.addFavorite(slug, reader.getId()));
+        assertThat(storedFavoritesCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unFavorite_WithoutFavorite_LeavesCountUntouched() {
+        assertThrows(RealWorldException.class, () -> articleService.unFavorite(slug, reader.getId()));
+        assertThat(storedFavoritesCount()).isZero();
+    }
+
+    @Test
+    void addFavoriteAndUnFavorite_NeverLoadFavoriters() {
+        articleService.addFavorite(slug, author.getId());
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        articleService.addFavorite(slug, reader.getId());
+        articleService.unFavorite(slug, reader.getId());
+
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void update_DoesNotOverwriteStoredCount() {
+        articleService.addFavorite(slug, reader.getId());
+        entityManager.createQuery("UPDATE Article a SET a.favoritesCount = 5 WHERE a.slug = :slug")
+                .setParameter("slug", slug)
+                .executeUpdate();
+
+        Article article = articleService.findBySlug(slug).orElseThrow();
+        article.update("Counted article", "new description", null);
+        entityManager.flush();
+
+        assertThat(storedFavoritesCount()).isEqualTo(5);
+    }
+
+    @Test
+    void reconcileFavoritesCounts_RestoresCountFromFavorites() {
+        articleService.addFavorite(slug, reader.getId());
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE articles SET favorites_count = 42 WHERE slug = :slug")
+                .setParameter("slug", slug)
+                .executeUpdate();
+
+        int corrected = articleService.reconcileFavoritesCounts();
+
+        assertThat(corrected).isEqualTo(1);
+        assertThat(storedFavoritesCount()).isEqualTo(1);
+    }
+
+    private int storedFavoritesCount() {
+        entityManager.flush();
+        entityManager.clear();
+        return articleService.findBySlug(slug).orElseThrow().getFavoritesCount();
+    }
+}
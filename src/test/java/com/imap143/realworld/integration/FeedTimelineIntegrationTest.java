@@ -0,0 +1,180 @@
+package com.imap143.realworld.integration;
+
+import com.imap143.realworld.article.model.Article;
+import com.imap143.realworld.article.model.ArticleContent;
+import com.imap143.realworld.article.model.ArticleCursor;
+import com.imap143.realworld.article.repository.FeedRepository;
+import com.imap143.realworld.article.repository.OffsetPageRequest;
+import com.imap143.realworld.article.service.ArticleService;
+import com.imap143.realworld.article.service.FeedTimelines;
+import com.imap143.realworld.user.model.Password;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.user.service.ProfileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: fan-out runs after the creating transaction commits, which a rolled-back
+// test transaction never does. Everything created here is removed again after each test.
+@SpringBootTest(properties = "articles.feed.max-entries-per-user=2")
+class FeedTimelineIntegrationTest {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private FeedTimelines feedTimelines;
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Article> articles = new ArrayList<>();
+    private User author;
+    private User otherAuthor;
+    private User reader;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        author = userRepository.save(User.of("timeline-author@test.com", "timelineauthor", Password.of("password", passwordEncoder)));
+        otherAuthor = userRepository.save(User.of("timeline-other@test.com", "timelineother", Password.of("password", passwordEncoder)));
+        reader = userRepository.save(User.of("timeline-reader@test.com", "timelinereader", Password.of("password", passwordEncoder)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        articles.forEach(article -> articleService.delete(article.getSlug(), article.getAuthor().getId()));
+        profileService.unfollowUser(author.getUsername(), reader.getId());
+        profileService.unfollowUser(otherAuthor.getUsername(), reader.getId());
+        jdbcTemplate.update("DELETE FROM user_follow_changes WHERE follower_id = ?", reader.getId());
+        jdbcTemplate.update("DELETE FROM user_feed_horizons WHERE user_id = ?", reader.getId());
+        userRepository.deleteAllById(List.of(author.getId(), otherAuthor.getId(), reader.getId()));
+    }
+
+    private Article create(String title) {
+        return create(author, title);
+    }
+
+    private Article create(User writer, String title) {
+        Article article = articleService.create(writer.getId(), new ArticleContent(title, "description", "body", new HashSet<>()));
+        articles.add(article);
+        return article;
+    }
+
+    @Test
+    void create_AfterFollowCommitted_FansOutToFollowersFeed() {
+        profileService.followUser(author.getUsername(), reader.getId());
+
+        Article article = create("Timeline article");
+
+        assertThat(feedRepository.countByUserId(reader.getId())).isEqualTo(1);
+        assertThat(articleService.getFeed(reader.getId(), PageRequest.of(0, 10)).getContent())
+                .extracting(Article::getId)
+                .containsExactly(article.getId());
+    }
+
+    @Test
+    void follow_AfterArticleCommitted_BackfillsOverlappingFanOutWithoutDuplicates() {
+        Article article = create("Timeline article");
+
+        profileService.followUser(author.getUsername(), reader.getId());
+        // The same rows again, as a fan-out committing alongside the follow would insert them.
+        feedTimelines.fanOut(article.getId(), author.getId());
+
+        assertThat(feedRepository.countByUserId(reader.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void repairFanOuts_FansOutArticlesWhoseFanOutWasLost() {
+        profileService.followUser(author.getUsername(), reader.getId());
+        Article article = create("Timeline article");
+        // As if the process stopped with the fan-out still queued.
+        jdbcTemplate.update("DELETE FROM user_feed WHERE article_id = ?", article.getId());
+        jdbcTemplate.update("UPDATE articles SET fanned_out = FALSE WHERE id = ?", article.getId());
+
+        int repaired = feedTimelines.repairFanOuts(LocalDateTime.now().plusMinutes(1), 10);
+
+        assertThat(repaired).isEqualTo(1);
+        assertThat(feedRepository.countByUserId(reader.getId())).isEqualTo(1);
+        assertThat(feedTimelines.repairFanOuts(LocalDateTime.now().plusMinutes(1), 10)).isZero();
+    }
+
+    @Test
+    void trim_KeepsNewestEntriesOfEachTimeline() {
+        profileService.followUser(author.getUsername(), reader.getId());
+        Article oldest = create("Oldest");
+        Article middle = create("Middle");
+        Article newest = create("Newest");
+
+        int trimmed = feedTimelines.trim();
+
+        assertThat(trimmed).isEqualTo(1);
+        assertThat(feedRepository.countByUserId(reader.getId())).isEqualTo(2);
+        // The trimmed article is still in the feed, read from the follow graph.
+        assertThat(articleService.getFeed(reader.getId(), PageRequest.of(0, 10)).getContent())
+                .extracting(Article::getId)
+                .containsExactly(newest.getId(), middle.getId(), oldest.getId());
+    }
+
+    @Test
+    void scrollFeed_AuthorsBackfilledToDifferentDepths_SkipsNothing() {
+        Article oldest = create(otherAuthor, "Other oldest");
+        Article omitted = create(author, "Left out by the backfill");
+        Article middle = create(author, "Middle");
+        Article newest = create(author, "Newest");
+        // Backfilled completely, while only the newest two of author's articles are copied.
+        profileService.followUser(otherAuthor.getUsername(), reader.getId());
+        profileService.followUser(author.getUsername(), reader.getId());
+
+        List<Article> first = articleService.scrollFeed(reader.getId(), ArticleCursor.FIRST, 3);
+        List<Article> second = articleService.scrollFeed(reader.getId(), ArticleCursor.after(first.get(2)), 3);
+
+        assertThat(first).extracting(Article::getId).containsExactly(newest.getId(), middle.getId(), omitted.getId());
+        assertThat(second).extracting(Article::getId).containsExactly(oldest.getId());
+    }
+
+    @Test
+    void getFeed_AuthorsBackfilledToDifferentDepths_SkipsNothing() {
+        Article oldest = create(otherAuthor, "Other oldest");
+        Article omitted = create(author, "Left out by the backfill");
+        Article middle = create(author, "Middle");
+        Article newest = create(author, "Newest");
+        profileService.followUser(otherAuthor.getUsername(), reader.getId());
+        profileService.followUser(author.getUsername(), reader.getId());
+
+        Page<Article> first = articleService.getFeed(reader.getId(), new OffsetPageRequest(0, 3));
+        Page<Article> second = articleService.getFeed(reader.getId(), new OffsetPageRequest(3, 3));
+        Page<Article> pastTimeline = articleService.getFeed(reader.getId(), new OffsetPageRequest(2, 2));
+
+        assertThat(first.getContent()).extracting(Article::getId)
+                .containsExactly(newest.getId(), middle.getId(), omitted.getId());
+        assertThat(second.getContent()).extracting(Article::getId).containsExactly(oldest.getId());
+        assertThat(pastTimeline.getContent()).extracting(Article::getId)
+                .containsExactly(omitted.getId(), oldest.getId());
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(second.getTotalElements()).isEqualTo(4);
+    }
+}
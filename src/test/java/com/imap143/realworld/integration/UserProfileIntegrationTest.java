@@ -9,11 +9,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -33,7 +38,7 @@ class UserProfileIntegrationTest {
         UserSignUpRequestDto user1SignUp = new UserSignUpRequestDto(
             "user1@test.com", "user1", "password");
         
-        String user1Response = mockMvc.perform(post("/users")
+        String user1Response = performAsync(post("/users")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(user1SignUp)))
@@ -46,7 +51,7 @@ class UserProfileIntegrationTest {
         UserSignUpRequestDto user2SignUp = new UserSignUpRequestDto(
             "user2@test.com", "user2", "password");
         
-        mockMvc.perform(post("/users")
+        performAsync(post("/users")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(user2SignUp)))
@@ -99,4 +104,12 @@ class UserProfileIntegrationTest {
             throw new RuntimeException("Failed to extract token", e);
         }
     }
-} 
\ No newline at end of file
+
+    // Registration completes asynchronously, so its response arrives on the async dispatch.
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(asyncResult));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.imap143.realworld.security;
+
+import com.imap143.realworld.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        LoginThrottlingProperties properties = new LoginThrottlingProperties();
+        properties.setEmailBurst(3);
+        properties.setEmailInterval(Duration.ofSeconds(10));
+        properties.setAddressBurst(5);
+        properties.setAddressInterval(Duration.ofSeconds(1));
+        loginThrottle = new LoginThrottle(properties, nanos::get);
+    }
+
+    @Test
+    void checkAttempt_OverEmailBurst_ThrowsWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.checkAttempt("test@test.com", "10.0.0." + i);
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () ->
+                loginThrottle.checkAttempt("TEST@test.com", "10.0.0.9"));
+
+        assertThat(exception.getRetryAfterSeconds()).isEqualTo(10);
+    }
+
+    @Test
+    void checkAttempt_AfterInterval_AllowsAgain() {
+        for (int i = 0; i < 3; i++) {
+            loginThrottle.checkAttempt("test@test.com", "10.0.0." + i);
+        }
+
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThatCode(() -> loginThrottle.checkAttempt("test@test.com", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAttempt_OverAddressBurst_ThrowsForAnyEmail() {
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.checkAttempt("user" + i + "@test.com", "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () ->
+                loginThrottle.checkAttempt("other@test.com", "10.0.0.1"));
+        assertThatCode(() -> loginThrottle.checkAttempt("other@test.com", "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void bindTo_CountsRejections() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        loginThrottle.bindTo(registry);
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.checkAttempt("user" + i + "@test.com", "10.0.0.1");
+        }
+
+        assertThrows(TooManyRequestsException.class, () ->
+                loginThrottle.checkAttempt("other@test.com", "10.0.0.1"));
+
+        assertThat(registry.get("login.throttle.rejections").tag("key", "address").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("login.throttle.rejections").tag("key", "email").functionCounter().count())
+                .isZero();
+    }
+}
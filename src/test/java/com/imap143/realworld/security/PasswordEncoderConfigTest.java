@@ -0,0 +1,56 @@
+package com.imap143.realworld.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderConfigTest {
+
+    private final PasswordEncoderConfig passwordEncoderConfig = new PasswordEncoderConfig();
+
+    @Test
+    void calibrateStrength_StaysWithinBounds() {
+        assertThat(PasswordEncoderConfig.calibrateStrength(0, 4, 6)).isEqualTo(4);
+        assertThat(PasswordEncoderConfig.calibrateStrength(Long.MAX_VALUE / 4, 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void passwordEncoder_EncodesWithBcryptPrefix() {
+        PasswordEncoder passwordEncoder = passwordEncoderWithStrength(4);
+
+        String encoded = passwordEncoder.encode("password");
+
+        assertThat(encoded).startsWith("{bcrypt}$2a$04$");
+        assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(encoded)).isFalse();
+    }
+
+    @Test
+    void passwordEncoder_WithLegacyUnprefixedHash_MatchesAndRequestsUpgrade() {
+        PasswordEncoder passwordEncoder = passwordEncoderWithStrength(4);
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        assertThat(passwordEncoder.matches("password", legacy)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void passwordEncoder_RequestsUpgradeOnlyForLowerCost() {
+        String weaker = passwordEncoderWithStrength(4).encode("password");
+        String stronger = passwordEncoderWithStrength(6).encode("password");
+
+        PasswordEncoder passwordEncoder = passwordEncoderWithStrength(5);
+
+        assertThat(passwordEncoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(stronger)).isFalse();
+        assertThat(passwordEncoder.matches("password", stronger)).isTrue();
+    }
+
+    private PasswordEncoder passwordEncoderWithStrength(int strength) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        return passwordEncoderConfig.passwordEncoder(properties);
+    }
+}
@@ -1,68 +1,320 @@
 package com.imap143.realworld.security.jwt;
 
 import com.imap143.realworld.security.CustomUserDetails;
+import com.imap143.realworld.user.model.User;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class JwtProviderTest {
 
     private JwtProvider jwtProvider;
     private JwtProperties jwtProperties;
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtKeyRing jwtKeyRing;
+
+    private static final String SECRET = "testsecretkeytestsecretkeytestsecretkey";
+
+    @TempDir
+    Path directory;
+    private Path keyFile;
 
     @Mock
-    private UserDetailsService userDetailsService;
+    private TokenVersionRegistry tokenVersionRegistry;
 
     @BeforeEach
     void setUp() {
         jwtProperties = new JwtProperties();
-        ReflectionTestUtils.setField(jwtProperties, "secretKey", "testsecretkeytestsecretkeytestsecretkey");
+        ReflectionTestUtils.setField(jwtProperties, "secretKey", SECRET);
         ReflectionTestUtils.setField(jwtProperties, "tokenValidityInSeconds", 3600);
+        keyFile = directory.resolve("jwt-keys.properties");
 
-        jwtProvider = new JwtProvider(jwtProperties, userDetailsService);
+        verifiedTokenCache = new VerifiedTokenCache(jwtProperties);
+        jwtKeyRing = new JwtKeyRing(jwtProperties, verifiedTokenCache);
+        jwtProvider = new JwtProvider(jwtProperties, tokenVersionRegistry, verifiedTokenCache, jwtKeyRing);
         jwtProvider.init();
     }
 
-    @Test
-    void createToken_WithUserId_ReturnsValidToken() {
+    private User user(long userId) {
+        User user = User.of("test@test.com", "testuser", null);
+        ReflectionTestUtils.setField(user, "id", userId);
+        return user;
+    }
 
+    @Test
+    void createToken_WithUser_ReturnsTokenCarryingPrincipalClaims() {
         long userId = 1L;
 
-        String token = jwtProvider.createToken(userId);
+        String token = jwtProvider.createToken(user(userId));
 
         assertThat(token).isNotNull();
-        assertThat(jwtProvider.validateToken(token)).isTrue();
-        assertThat(jwtProvider.getUserId(token)).isEqualTo(String.valueOf(userId));
+        assertThat(jwtProvider.parseClaims(token)).hasValueSatisfying(claims -> {
+            assertThat(claims.getSubject()).isEqualTo(String.valueOf(userId));
+            assertThat(claims.get(JwtProvider.EMAIL_CLAIM)).isEqualTo("test@test.com");
+            assertThat(claims.get(JwtProvider.USERNAME_CLAIM)).isEqualTo("testuser");
+            assertThat(claims.get(JwtProvider.TOKEN_VERSION_CLAIM, Long.class)).isZero();
+        });
     }
 
     @Test
-    void validateToken_WithInvalidToken_ReturnsFalse() {
+    void parseClaims_WithInvalidToken_ReturnsEmpty() {
         String invalidToken = "invalid.token.here";
 
-        assertThat(jwtProvider.validateToken(invalidToken)).isFalse();
+        assertThat(jwtProvider.parseClaims(invalidToken)).isEmpty();
     }
 
     @Test
-    void getAuthentication_WithValidToken_ReturnsAuthentication() {
+    void parseClaims_WithTokenSignedByAnotherKey_ReturnsEmpty() {
+        JwtProperties otherProperties = new JwtProperties();
+        ReflectionTestUtils.setField(otherProperties, "secretKey", "othersecretkeyothersecretkeyothersecretkey");
+        ReflectionTestUtils.setField(otherProperties, "tokenValidityInSeconds", 3600);
+        VerifiedTokenCache otherCache = new VerifiedTokenCache(otherProperties);
+        JwtProvider otherProvider = new JwtProvider(otherProperties, tokenVersionRegistry, otherCache,
+                new JwtKeyRing(otherProperties, otherCache));
+        otherProvider.init();
+
+        assertThat(jwtProvider.parseClaims(otherProvider.createToken(user(1L)))).isEmpty();
+    }
+
+    @Test
+    void authenticate_WithValidToken_BuildsPrincipalFromClaims() {
         long userId = 1L;
-        String token = jwtProvider.createToken(userId);
-        CustomUserDetails userDetails = new CustomUserDetails(userId, "test@test.com", "testuser");
-        given(userDetailsService.loadUserByUsername(String.valueOf(userId))).willReturn(userDetails);
+        String token = jwtProvider.createToken(user(userId));
+        given(tokenVersionRegistry.isCurrent(userId, 0L)).willReturn(true);
 
-        Authentication authentication = jwtProvider.getAuthentication(token);
+        Optional<Authentication> authentication = jwtProvider.authenticate(token);
 
-        assertThat(authentication).isNotNull();
-        assertThat(authentication.getPrincipal()).isInstanceOf(CustomUserDetails.class);
-        CustomUserDetails principal = (CustomUserDetails) authentication.getPrincipal();
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getPrincipal()).isInstanceOf(CustomUserDetails.class);
+        CustomUserDetails principal = (CustomUserDetails) authentication.get().getPrincipal();
         assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getEmail()).isEqualTo("test@test.com");
+        assertThat(principal.getRealUsername()).isEqualTo("testuser");
+    }
+
+    @Test
+    void authenticate_WithRepeatedToken_ReusesVerifiedAuthentication() {
+        long userId = 1L;
+        String token = jwtProvider.createToken(user(userId));
+        given(tokenVersionRegistry.isCurrent(userId, 0L)).willReturn(true);
+
+        Authentication first = jwtProvider.authenticate(token).orElseThrow();
+        Authentication second = jwtProvider.authenticate(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifiedTokenCache.stats().missCount()).isEqualTo(1);
+        assertThat(verifiedTokenCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void authenticate_WithCachedTokenRevokedLater_ReturnsEmpty() {
+        long userId = 1L;
+        String token = jwtProvider.createToken(user(userId));
+        given(tokenVersionRegistry.isCurrent(userId, 0L)).willReturn(true, false);
+
+        assertThat(jwtProvider.authenticate(token)).isPresent();
+        assertThat(jwtProvider.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    void authenticate_WithInvalidToken_IsNotCached() {
+        jwtProvider.authenticate("invalid.token.here");
+
+        assertThat(verifiedTokenCache.stats().loadFailureCount()).isEqualTo(1);
+        assertThat(verifiedTokenCache.stats().evictionCount()).isZero();
+    }
+
+    @Test
+    void authenticate_WithRevokedTokenVersion_ReturnsEmpty() {
+        long userId = 1L;
+        String token = jwtProvider.createToken(user(userId));
+        given(tokenVersionRegistry.isCurrent(eq(userId), anyLong())).willReturn(false);
+
+        assertThat(jwtProvider.authenticate(token)).isEmpty();
+    }
+
+    @Test
+    void authenticate_WithInvalidToken_SkipsRevocationCheck() {
+        assertThat(jwtProvider.authenticate("invalid.token.here")).isEmpty();
+        verifyNoInteractions(tokenVersionRegistry);
+    }
+
+    @Test
+    void authenticate_WithValidToken_KeepsTokenAndLifetime() {
+        long userId = 1L;
+        String token = jwtProvider.createToken(user(userId));
+        given(tokenVersionRegistry.isCurrent(userId, 0L)).willReturn(true);
+
+        Authentication authentication = jwtProvider.authenticate(token).orElseThrow();
+
+        assertThat(authentication).isInstanceOfSatisfying(JwtAuthentication.class, jwtAuthentication -> {
+            assertThat(jwtAuthentication.getToken()).isEqualTo(token);
+            assertThat(jwtAuthentication.getExpiresAtMillis() - jwtAuthentication.getIssuedAtMillis())
+                    .isEqualTo(3600_000L);
+        });
+    }
+
+    @Test
+    void reuseOrCreateToken_WithFreshCallerToken_ReturnsCallerToken() {
+        jwtProperties.setReuseTokens(true);
+        long now = System.currentTimeMillis();
+
+        String token = jwtProvider.reuseOrCreateToken(user(1L), callerAuthentication(now - 60_000, now + 3540_000));
+
+        assertThat(token).isEqualTo("caller.token");
+    }
+
+    @Test
+    void reuseOrCreateToken_WithCallerTokenNearExpiry_CreatesNewToken() {
+        jwtProperties.setReuseTokens(true);
+        long now = System.currentTimeMillis();
+
+        String token = jwtProvider.reuseOrCreateToken(user(1L), callerAuthentication(now - 3000_000, now + 600_000));
+
+        assertThat(token).isNotEqualTo("caller.token");
+        assertThat(jwtProvider.parseClaims(token)).isPresent();
+    }
+
+    @Test
+    void reuseOrCreateToken_WithChangedUsername_CreatesNewToken() {
+        jwtProperties.setReuseTokens(true);
+        long now = System.currentTimeMillis();
+        User renamed = User.of("test@test.com", "renamed", null);
+        ReflectionTestUtils.setField(renamed, "id", 1L);
+
+        String token = jwtProvider.reuseOrCreateToken(renamed, callerAuthentication(now - 60_000, now + 3540_000));
+
+        assertThat(jwtProvider.parseClaims(token)).hasValueSatisfying(claims ->
+                assertThat(claims.get(JwtProvider.USERNAME_CLAIM)).isEqualTo("renamed"));
+    }
+
+    @Test
+    void reuseOrCreateToken_WhenReuseDisabled_CreatesNewToken() {
+        long now = System.currentTimeMillis();
+
+        String token = jwtProvider.reuseOrCreateToken(user(1L), callerAuthentication(now - 60_000, now + 3540_000));
+
+        assertThat(token).isNotEqualTo("caller.token");
+    }
+
+    @Test
+    void createToken_SetsCurrentKeyIdHeader() throws IOException {
+        useKeyFile("2024-06", "default", "2024-06");
+
+        String token = jwtProvider.createToken(user(1L));
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertThat(header).contains("\"kid\":\"2024-06\"");
+    }
+
+    @Test
+    void authenticate_AfterRotation_AcceptsTokensOfEveryActiveKey() throws IOException {
+        given(tokenVersionRegistry.isCurrent(1L, 0L)).willReturn(true);
+        String oldToken = jwtProvider.createToken(user(1L));
+
+        useKeyFile("2024-06", "default", "2024-06");
+        String newToken = jwtProvider.createToken(user(1L));
+
+        assertThat(newToken).isNotEqualTo(oldToken);
+        assertThat(jwtProvider.authenticate(oldToken)).isPresent();
+        assertThat(jwtProvider.authenticate(newToken)).isPresent();
+    }
+
+    @Test
+    void authenticate_TokenOfRotatedKey_VerifiesOnEveryNodeReadingTheSameFile() throws IOException {
+        given(tokenVersionRegistry.isCurrent(1L, 0L)).willReturn(true);
+        useKeyFile("2024-06", "default", "2024-06");
+        String token = jwtProvider.createToken(user(1L));
+
+        VerifiedTokenCache otherCache = new VerifiedTokenCache(jwtProperties);
+        JwtProvider otherNode = new JwtProvider(jwtProperties, tokenVersionRegistry, otherCache,
+                new JwtKeyRing(jwtProperties, otherCache));
+        otherNode.init();
+
+        assertThat(otherNode.authenticate(token)).isPresent();
+    }
+
+    @Test
+    void authenticate_AfterRemovingKeyFromFile_RejectsCachedTokensOfThatKey() throws IOException {
+        given(tokenVersionRegistry.isCurrent(1L, 0L)).willReturn(true);
+        String oldToken = jwtProvider.createToken(user(1L));
+        assertThat(jwtProvider.authenticate(oldToken)).isPresent();
+
+        useKeyFile("2024-06", "2024-06");
+
+        assertThat(jwtProvider.authenticate(oldToken)).isEmpty();
+        assertThat(jwtProvider.authenticate(jwtProvider.createToken(user(1L)))).isPresent();
+    }
+
+    @Test
+    void reload_WithCurrentKeyMissingFromFile_KeepsPreviousKeys() throws IOException {
+        useKeyFile("2024-06", "default", "2024-06");
+        Files.writeString(keyFile, "current=2024-07\nkey.default=" + SECRET + "\n");
+
+        jwtKeyRing.reload();
+
+        assertThat(jwtKeyRing.currentKeyId()).isEqualTo("2024-06");
+        assertThat(jwtKeyRing.keyIds()).containsExactlyInAnyOrder("default", "2024-06");
+    }
+
+    @Test
+    void parseClaims_WithoutKeyIdHeader_UsesDefaultKey() {
+        String legacyToken = Jwts.builder()
+                .setSubject("1")
+                .signWith(JwtKeyRing.deriveKey("testsecretkeytestsecretkeytestsecretkey"), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtProvider.parseClaims(legacyToken)).hasValueSatisfying(claims ->
+                assertThat(claims.getSubject()).isEqualTo("1"));
+    }
+
+    @Test
+    void parseClaims_WithUnknownKeyId_ReturnsEmpty() {
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, "unknown")
+                .setSubject("1")
+                .signWith(JwtKeyRing.deriveKey("testsecretkeytestsecretkeytestsecretkey"), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtProvider.parseClaims(token)).isEmpty();
+    }
+
+    // Points the ring at a key file holding the given key ids and reloads it. "default" keeps the
+    // secret the provider started with; other ids get a secret of their own.
+    private void useKeyFile(String currentKeyId, String... keyIds) throws IOException {
+        StringBuilder content = new StringBuilder("current=" + currentKeyId + "\n");
+        for (String keyId : keyIds) {
+            String secret = keyId.equals("default") ? SECRET : "rotatedsecretkeyrotatedsecretkey" + keyId;
+            content.append("key.").append(keyId).append('=').append(secret).append('\n');
+        }
+        Files.writeString(keyFile, content);
+        jwtProperties.setKeyFile(keyFile.toString());
+        jwtKeyRing.reload();
+    }
+
+    private JwtAuthentication callerAuthentication(long issuedAtMillis, long expiresAtMillis) {
+        CustomUserDetails userDetails = new CustomUserDetails(1L, "test@test.com", "testuser");
+        return new JwtAuthentication(userDetails, "caller.token", 0L, issuedAtMillis, expiresAtMillis);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.imap143.realworld.security.jwt;
+
+import com.imap143.realworld.user.model.TokenVersion;
+import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.user.service.TokensRevokedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Test
+    void isCurrent_WithoutRevocation_AcceptsInitialVersion() {
+        assertThat(tokenVersionRegistry.isCurrent(1L, 0L)).isTrue();
+    }
+
+    @Test
+    void load_WithStoredVersions_RejectsOlderTokens() {
+        given(userRepository.findRevokedTokenVersions()).willReturn(List.of(new TokenVersion(1L, 2L)));
+
+        tokenVersionRegistry.load();
+
+        assertThat(tokenVersionRegistry.isCurrent(1L, 1L)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(1L, 2L)).isTrue();
+        assertThat(tokenVersionRegistry.isCurrent(2L, 0L)).isTrue();
+    }
+
+    @Test
+    void reload_PicksUpRevocationsFromOtherNodes() {
+        given(userRepository.findRevokedTokenVersions()).willReturn(List.of())
+                .willReturn(List.of(new TokenVersion(1L, 2L)));
+        tokenVersionRegistry.load();
+        assertThat(tokenVersionRegistry.isCurrent(1L, 1L)).isTrue();
+
+        tokenVersionRegistry.reload();
+
+        assertThat(tokenVersionRegistry.isCurrent(1L, 1L)).isFalse();
+    }
+
+    @Test
+    void onTokensRevoked_NeverLowersMinimumVersion() {
+        tokenVersionRegistry.onTokensRevoked(new TokensRevokedEvent(1L, 3L));
+        tokenVersionRegistry.onTokensRevoked(new TokensRevokedEvent(1L, 2L));
+
+        assertThat(tokenVersionRegistry.isCurrent(1L, 2L)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(1L, 3L)).isTrue();
+    }
+}
@@ -2,6 +2,9 @@ package com.imap143.realworld.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.imap143.realworld.exception.DuplicateEmailException;
+import com.imap143.realworld.exception.ServiceUnavailableException;
+import com.imap143.realworld.exception.TooManyRequestsException;
+import com.imap143.realworld.security.LoginThrottle;
 import com.imap143.realworld.security.CustomUserDetails;
 import com.imap143.realworld.security.SecurityConfig;
 import com.imap143.realworld.security.jwt.JwtProvider;
@@ -19,19 +22,27 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -51,6 +62,9 @@ class UserControllerTest {
     @MockBean
     private PasswordEncoder passwordEncoder;
 
+    @MockBean
+    private LoginThrottle loginThrottle;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -63,14 +77,17 @@ class UserControllerTest {
         ReflectionTestUtils.setField(mockUser, "id", userId);
         String token = "mock.jwt.token";
 
-        given(userService.register(any())).willReturn(mockUser);
-        given(jwtProvider.createToken(userId)).willReturn(token);
+        given(userService.register(any())).willReturn(CompletableFuture.completedFuture(mockUser));
+        given(jwtProvider.createToken(mockUser)).willReturn(token);
 
-        
-        mockMvc.perform(post("/users")
+        MvcResult asyncResult = mockMvc.perform(post("/users")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user.email").value("test@test.com"))
@@ -101,7 +118,7 @@ class UserControllerTest {
 
         CustomUserDetails userDetails = new CustomUserDetails(userId, "test@test.com", "testuser");
         given(userService.findById(userId)).willReturn(Optional.of(mockUser));
-        given(jwtProvider.createToken(userId)).willReturn(token);
+        given(jwtProvider.reuseOrCreateToken(eq(mockUser), any())).willReturn(token);
 
         
         mockMvc.perform(get("/user")
@@ -122,14 +139,18 @@ class UserControllerTest {
         String token = "mock.jwt.token";
 
         UserLoginRequestDto loginRequest = new UserLoginRequestDto("test@test.com", "password");
-        given(userService.login("test@test.com", "password")).willReturn(Optional.of(mockUser));
-        given(jwtProvider.createToken(userId)).willReturn(token);
+        given(userService.login("test@test.com", "password"))
+                .willReturn(CompletableFuture.completedFuture(Optional.of(mockUser)));
+        given(jwtProvider.createToken(mockUser)).willReturn(token);
 
-        
-        mockMvc.perform(post("/users/login")
+        MvcResult asyncResult = mockMvc.perform(post("/users/login")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user.email").value("test@test.com"))
@@ -137,6 +158,38 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.user.token").value(token));
     }
 
+    @Test
+    void loginUser_WhenHashingPoolIsSaturated_ReturnsServiceUnavailable() throws Exception {
+        UserLoginRequestDto loginRequest = new UserLoginRequestDto("test@test.com", "password");
+        given(userService.login("test@test.com", "password"))
+                .willThrow(new ServiceUnavailableException("Server is busy, please try again later"));
+
+        mockMvc.perform(post("/users/login")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void loginUser_WhenThrottled_ReturnsTooManyRequestsWithoutHashing() throws Exception {
+        UserLoginRequestDto loginRequest = new UserLoginRequestDto("test@test.com", "password");
+        willThrow(new TooManyRequestsException("Too many login attempts, please try again later", 12))
+                .given(loginThrottle).checkAttempt(eq("test@test.com"), any());
+
+        mockMvc.perform(post("/users/login")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void updateUser_WithValidInput_ReturnsUpdatedUser() throws Exception {
         long userId = 1L;
@@ -154,7 +207,7 @@ class UserControllerTest {
 
         CustomUserDetails userDetails = new CustomUserDetails(userId, "test@test.com", "testuser");
         given(userService.update(eq(userId), any(UserUpdateRequest.class))).willReturn(mockUser);
-        given(jwtProvider.createToken(userId)).willReturn(token);
+        given(jwtProvider.reuseOrCreateToken(eq(mockUser), any())).willReturn(token);
 
         mockMvc.perform(put("/user")
                 .with(csrf())
@@ -168,6 +221,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.user.token").value(token));
     }
 
+    @Test
+    void logoutUser_WithAuthenticatedUser_RevokesTokens() throws Exception {
+        long userId = 1L;
+        CustomUserDetails userDetails = new CustomUserDetails(userId, "test@test.com", "testuser");
+
+        mockMvc.perform(post("/users/logout")
+                .with(csrf())
+                .with(user(userDetails)))
+                .andDo(print())
+                .andExpect(status().isNoContent());
+
+        verify(userService).revokeTokens(userId);
+    }
+
     @Test
     void updateUser_WithDuplicateEmail_ReturnsConflict() throws Exception {
         long userId = 1L;
@@ -5,6 +5,7 @@ import com.imap143.realworld.user.model.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
@@ -17,6 +18,9 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @Test
@@ -45,4 +49,16 @@ class UserRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getUsername()).isEqualTo("testuser");
     }
-} 
\ No newline at end of file
+
+    @Test
+    void updatePasswordIfUnchanged_AfterConcurrentChange_KeepsNewerPassword() {
+        User user = userRepository.saveAndFlush(User.of("test@test.com", "testuser", Password.of("password", passwordEncoder)));
+        String verified = user.getPassword().getEncodedPassword();
+
+        assertThat(userRepository.updatePasswordIfUnchanged(user.getId(), "changed-meanwhile", "rehashed")).isZero();
+        assertThat(userRepository.updatePasswordIfUnchanged(user.getId(), verified, "rehashed")).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword().getEncodedPassword()).isEqualTo("rehashed");
+    }
+}
@@ -0,0 +1,88 @@
+package com.imap143.realworld.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FollowGraphSnapshotTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_AfterWrite_RestoresGraphAndWatermark() throws IOException {
+        FollowGraph original = new FollowGraph();
+        original.add(1L, 3L);
+        original.add(1L, 2L);
+        original.add(7L, 1L);
+        original.add(9L, 1L);
+        original.remove(9L, 1L);
+        Path path = directory.resolve("follows.snapshot");
+
+        FollowGraphSnapshot.write(original, WATERMARK, path);
+        FollowGraph restored = new FollowGraph();
+
+        assertThat(FollowGraphSnapshot.read(path, restored)).contains(WATERMARK);
+        assertThat(restored.following(1L)).containsExactly(2L, 3L);
+        assertThat(restored.following(7L)).containsExactly(1L);
+        assertThat(restored.following(9L)).isEmpty();
+        assertThat(restored.footprint().edges()).isEqualTo(3);
+    }
+
+    @Test
+    void read_WithoutFile_ReturnsEmpty() throws IOException {
+        assertThat(FollowGraphSnapshot.read(directory.resolve("missing.snapshot"), new FollowGraph())).isEmpty();
+    }
+
+    @Test
+    void read_CorruptedFile_FailsAndKeepsGraph() throws IOException {
+        FollowGraph original = new FollowGraph();
+        original.add(1L, 2L);
+        Path path = directory.resolve("follows.snapshot");
+        FollowGraphSnapshot.write(original, WATERMARK, path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+        FollowGraph restored = new FollowGraph();
+        restored.add(5L, 6L);
+
+        assertThatThrownBy(() -> FollowGraphSnapshot.read(path, restored)).isInstanceOf(IOException.class);
+        assertThat(restored.follows(5L, 6L)).isTrue();
+    }
+
+    @Test
+    void write_WhileFollowsUncommitted_LeavesThemOut() throws IOException {
+        FollowGraph graph = new FollowGraph();
+        graph.add(1L, 3L);
+        graph.add(4L, 5L);
+        Path path = directory.resolve("follows.snapshot");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            graph.onFollowChanged(new FollowChangedEvent(1L, 2L, true));
+            graph.onFollowChanged(new FollowChangedEvent(4L, 5L, false));
+            graph.onFollowChanged(new FollowChangedEvent(6L, 7L, true));
+
+            FollowGraphSnapshot.write(graph, WATERMARK, path);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        FollowGraph restored = new FollowGraph();
+
+        FollowGraphSnapshot.read(path, restored);
+        assertThat(graph.following(1L)).containsExactly(2L, 3L);
+        assertThat(restored.following(1L)).containsExactly(3L);
+        assertThat(restored.following(4L)).containsExactly(5L);
+        assertThat(restored.following(6L)).isEmpty();
+        assertThat(restored.footprint().edges()).isEqualTo(2);
+    }
+}
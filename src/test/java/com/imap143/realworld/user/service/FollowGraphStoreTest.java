@@ -0,0 +1,122 @@
+package com.imap143.realworld.user.service;
+
+import com.imap143.realworld.user.model.Password;
+import com.imap143.realworld.user.model.User;
+import com.imap143.realworld.user.repository.FollowChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class FollowGraphStoreTest {
+
+    @Autowired
+    private FollowChangeRepository followChangeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    Path directory;
+
+    private final FollowGraph followGraph = new FollowGraph();
+    private final FollowGraphProperties properties = new FollowGraphProperties();
+    private FollowGraphStore store;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSnapshotPath(directory.resolve("follows.snapshot").toString());
+        store = new FollowGraphStore(followGraph, followChangeRepository, jdbcTemplate, properties);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_WithoutSnapshot_ScansUserFollows() {
+        long follower = user("follower");
+        long first = user("first");
+        long second = user("second");
+        follow(follower, second);
+        follow(follower, first);
+
+        store.afterSingletonsInstantiated();
+
+        assertThat(followGraph.following(follower)).containsExactly(Math.min(first, second), Math.max(first, second));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_WithSnapshot_ReplaysChangeLogFromBeforeWatermark() throws IOException {
+        LocalDateTime watermark = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusMinutes(10);
+        writeSnapshot(watermark, 1L, 2L);
+        // Before the overlap, so already in the snapshot and not replayed.
+        logChange(1L, 2L, false, watermark.minusMinutes(2));
+        // Inside the overlap: committed late, after the snapshot was taken.
+        logChange(1L, 3L, true, watermark.minusSeconds(30));
+        logChange(1L, 4L, true, watermark.plusMinutes(5));
+
+        store.afterSingletonsInstantiated();
+
+        assertThat(followGraph.following(1L)).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_SnapshotOlderThanChangeLog_ScansUserFollows() throws IOException {
+        properties.setChangeLogRetention(Duration.ofDays(1));
+        long follower = user("follower");
+        long followed = user("followed");
+        follow(follower, followed);
+        writeSnapshot(LocalDateTime.now().minusDays(2), follower, followed + 1);
+
+        store.afterSingletonsInstantiated();
+
+        assertThat(followGraph.following(follower)).containsExactly(followed);
+    }
+
+    @Test
+    void replay_PicksUpChangesMadeOnOtherNodes() {
+        store.afterSingletonsInstantiated();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        logChange(1L, 2L, true, now);
+        logChange(1L, 3L, true, now);
+        logChange(1L, 2L, false, now);
+
+        int replayed = store.replay();
+
+        assertThat(replayed).isEqualTo(3);
+        assertThat(followGraph.following(1L)).containsExactly(3L);
+    }
+
+    private long user(String username) {
+        User user = User.of(username + "@test.com", username, Password.of("password", new BCryptPasswordEncoder(4)));
+        return entityManager.persistAndFlush(user).getId();
+    }
+
+    private void follow(long followerId, long followedId) {
+        jdbcTemplate.update("INSERT INTO user_follows (followed_id, follower_id) VALUES (?, ?)", followedId, followerId);
+    }
+
+    private void logChange(long followerId, long followedId, boolean following, LocalDateTime changedAt) {
+        jdbcTemplate.update("INSERT INTO user_follow_changes (follower_id, followed_id, following, changed_at) VALUES (?, ?, ?, ?)",
+                followerId, followedId, following, changedAt);
+    }
+
+    private void writeSnapshot(LocalDateTime watermark, long followerId, long followedId) throws IOException {
+        FollowGraph snapshotted = new FollowGraph();
+        snapshotted.add(followerId, followedId);
+        FollowGraphSnapshot.write(snapshotted, watermark, Path.of(properties.getSnapshotPath()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.imap143.realworld.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FollowGraphTest {
+
+    private final FollowGraph graph = new FollowGraph();
+
+    @Test
+    void add_KeepsFollowedIdsSorted() {
+        graph.add(1L, 30L);
+        graph.add(1L, 10L);
+        graph.add(1L, 20L);
+
+        assertThat(graph.following(1L)).containsExactly(10L, 20L, 30L);
+        assertThat(graph.follows(1L, 20L)).isTrue();
+        assertThat(graph.follows(20L, 1L)).isFalse();
+    }
+
+    @Test
+    void add_Twice_CountsOnce() {
+        assertThat(graph.add(1L, 2L)).isTrue();
+        assertThat(graph.add(1L, 2L)).isFalse();
+
+        assertThat(graph.footprint().edges()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_DropsOnlyThatFollow() {
+        graph.add(1L, 2L);
+        graph.add(1L, 3L);
+
+        assertThat(graph.remove(1L, 2L)).isTrue();
+        assertThat(graph.remove(1L, 2L)).isFalse();
+
+        assertThat(graph.following(1L)).containsExactly(3L);
+    }
+
+    @Test
+    void add_BeyondInitialCapacity_KeepsEveryFollower() {
+        for (long follower = 1; follower <= 5_000; follower++) {
+            graph.add(follower, follower + 1);
+        }
+
+        for (long follower = 1; follower <= 5_000; follower++) {
+            assertThat(graph.follows(follower, follower + 1)).isTrue();
+        }
+        assertThat(graph.footprint().users()).isEqualTo(5_000);
+    }
+
+    @Test
+    void followedAmong_ReturnsOnlyFollowedCandidates() {
+        graph.add(1L, 2L);
+        graph.add(1L, 4L);
+
+        assertThat(graph.followedAmong(1L, List.of(2L, 3L, 4L))).containsExactlyInAnyOrder(2L, 4L);
+    }
+
+    @Test
+    void onFollowChanged_RolledBack_UndoesFollow() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            graph.onFollowChanged(new FollowChangedEvent(1L, 2L, true));
+            assertThat(graph.follows(1L, 2L)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(graph.follows(1L, 2L)).isFalse();
+    }
+
+    @Test
+    void footprint_CostsEightBytesPerFollowPlusPerFollowerOverhead() {
+        for (long follower = 1; follower <= 1_000; follower++) {
+            for (long followed = 1; followed <= 100; followed++) {
+                graph.add(follower, 10_000 + followed);
+            }
+        }
+
+        FollowGraph.Footprint footprint = graph.footprint();
+
+        assertThat(footprint.edges()).isEqualTo(100_000);
+        // 800 KB of ids, plus 16-byte headers and two table slots per follower
+        assertThat(footprint.bytes()).isBetween(800_000L, 850_000L);
+        assertThat(footprint.bytesPerMillionEdges()).isLessThan(8_500_000L);
+    }
+
+    @Test
+    void footprint_KeptInStepThroughRemovesAndResizes() {
+        for (long follower = 1; follower <= 3_000; follower++) {
+            graph.add(follower, follower + 1);
+            graph.add(follower, follower + 2);
+            graph.remove(follower, follower + 1);
+        }
+        FollowGraph loaded = new FollowGraph();
+        loaded.replaceAll(visitor -> {
+            for (long follower = 1; follower <= 3_000; follower++) {
+                visitor.visit(follower, new long[] {follower + 2});
+            }
+        });
+
+        assertThat(graph.footprint()).isEqualTo(loaded.footprint());
+    }
+}
@@ -2,16 +2,21 @@ package com.imap143.realworld.user.service;
 
 import com.imap143.realworld.exception.DuplicateEmailException;
 import com.imap143.realworld.exception.DuplicateUsernameException;
+import com.imap143.realworld.exception.ServiceUnavailableException;
 import com.imap143.realworld.user.model.Password;
 import com.imap143.realworld.user.model.User;
 import com.imap143.realworld.user.model.UserSignUpRequest;
 import com.imap143.realworld.user.model.UserUpdateRequest;
 import com.imap143.realworld.user.repository.UserRepository;
+import com.imap143.realworld.security.PasswordHashingExecutor;
+import com.imap143.realworld.security.PasswordHashingProperties;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -19,8 +24,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -31,9 +42,19 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setPoolSize(0);
+        userService = new UserService(passwordEncoder, userRepository, eventPublisher,
+                new PasswordHashingExecutor(properties), Runnable::run);
+    }
+
     @Test
     void register_WithValidInput_ReturnsUser() {
 
@@ -43,7 +64,7 @@ class UserServiceTest {
         given(passwordEncoder.encode(any())).willReturn("encodedPassword");
         given(userRepository.save(any(User.class))).willReturn(expectedUser);
 
-        User actualUser = userService.register(request);
+        User actualUser = userService.register(request).join();
 
         assertThat(actualUser.getEmail()).isEqualTo("test@test.com");
         assertThat(actualUser.getUsername()).isEqualTo("testuser");
@@ -59,13 +80,102 @@ class UserServiceTest {
         given(userRepository.findByEmail("test@test.com")).willReturn(java.util.Optional.of(user));
         given(user.matchPassword("password", PasswordEncoder)).willReturn(true);
 
-        java.util.Optional<User> actualUser = userService.login("test@test.com", "password");
+        java.util.Optional<User> actualUser = userService.login("test@test.com", "password").join();
 
         assertThat(actualUser).isPresent();
         assertThat(actualUser.get().getEmail()).isEqualTo("test@test.com");
         assertThat(actualUser.get().getUsername()).isEqualTo("testuser");
     }
 
+    @Test
+    void login_WithOutdatedHash_RehashesOnlyIfHashUnchanged() {
+        given(passwordEncoder.encode("password")).willReturn("oldHash", "newHash");
+        User user = User.of("test@test.com", "testuser", Password.of("password", passwordEncoder));
+        given(userRepository.findByEmail("test@test.com")).willReturn(Optional.of(user));
+        given(passwordEncoder.matches("password", "oldHash")).willReturn(true);
+        given(passwordEncoder.upgradeEncoding("oldHash")).willReturn(true);
+
+        Optional<User> actualUser = userService.login("test@test.com", "password").join();
+
+        assertThat(actualUser).isPresent();
+        assertThat(ReflectionTestUtils.getField(user.getPassword(), "encodedPassword")).isEqualTo("newHash");
+        verify(userRepository).updatePasswordIfUnchanged(user.getId(), "oldHash", "newHash");
+    }
+
+    @Test
+    void login_WithUnknownEmail_ReturnsEmptyWithoutHashing() {
+        given(userRepository.findByEmail("unknown@test.com")).willReturn(Optional.empty());
+
+        Optional<User> actualUser = userService.login("unknown@test.com", "password").join();
+
+        assertThat(actualUser).isEmpty();
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void register_WithHashingPool_SavesOnTaskExecutorInsteadOfHashingThread() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setPoolSize(1);
+        ExecutorService taskExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("task-"));
+        UserService pooledUserService = new UserService(passwordEncoder, userRepository, eventPublisher,
+                new PasswordHashingExecutor(properties), taskExecutor);
+        CountDownLatch hashing = new CountDownLatch(1);
+        AtomicReference<String> savingThread = new AtomicReference<>();
+        given(passwordEncoder.encode(any())).willAnswer(invocation -> {
+            hashing.await();
+            return "encodedPassword";
+        });
+        given(userRepository.save(any(User.class))).willAnswer(invocation -> {
+            savingThread.set(Thread.currentThread().getName());
+            return invocation.getArgument(0);
+        });
+
+        try {
+            CompletableFuture<User> registered = pooledUserService.register(
+                    new UserSignUpRequest("test@test.com", "testuser", "password"));
+            hashing.countDown();
+            registered.join();
+        } finally {
+            taskExecutor.shutdown();
+        }
+
+        assertThat(savingThread.get()).startsWith("task-");
+    }
+
+    @Test
+    void register_WhenHashingPoolIsSaturated_ThrowsServiceUnavailable() throws Exception {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        PasswordHashingExecutor saturatedExecutor = new PasswordHashingExecutor(properties);
+        UserService busyUserService = new UserService(passwordEncoder, userRepository, eventPublisher, saturatedExecutor,
+                Runnable::run);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        saturatedExecutor.submit(() -> {
+            running.countDown();
+            awaitQuietly(release);
+            return null;
+        });
+        running.await();
+        saturatedExecutor.submit(() -> null);
+
+        try {
+            assertThrows(ServiceUnavailableException.class, () ->
+                    busyUserService.register(new UserSignUpRequest("test@test.com", "testuser", "password")));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Test
     void update_WithValidInput_ReturnsUpdatedUser() {
     
@@ -89,6 +199,42 @@ class UserServiceTest {
         assertThat(updatedUser.getProfile().getImage()).isEqualTo("new-image-url");
     }
 
+    @Test
+    void update_WithNewPassword_RevokesIssuedTokens() {
+        long userId = 1L;
+        User existingUser = User.of("test@test.com", "testuser", null);
+        ReflectionTestUtils.setField(existingUser, "id", userId);
+
+        UserUpdateRequest updateRequest = UserUpdateRequest.builder()
+                .password("newPassword")
+                .build();
+
+        given(userRepository.findById(userId)).willReturn(Optional.of(existingUser));
+        given(passwordEncoder.encode("newPassword")).willReturn("encodedNewPassword");
+
+        User updatedUser = userService.update(userId, updateRequest);
+
+        assertThat(updatedUser.getTokenVersion()).isEqualTo(1L);
+        verify(eventPublisher).publishEvent(new TokensRevokedEvent(userId, 1L));
+    }
+
+    @Test
+    void update_WithNewBio_PublishesProfileChanged() {
+        long userId = 1L;
+        User existingUser = User.of("test@test.com", "testuser", null);
+        ReflectionTestUtils.setField(existingUser, "id", userId);
+
+        UserUpdateRequest updateRequest = UserUpdateRequest.builder()
+                .bio("New bio")
+                .build();
+
+        given(userRepository.findById(userId)).willReturn(Optional.of(existingUser));
+
+        userService.update(userId, updateRequest);
+
+        verify(eventPublisher).publishEvent(new ProfileChangedEvent(userId));
+    }
+
     @Test
     void update_WithDuplicateEmail_ThrowsException() {
 